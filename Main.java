@@ -1,6 +1,17 @@
 import functions.*;
 import functions.basic.Cos;
 import functions.basic.Sin;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
 
 public class Main {
     public static void main(String[] args) {
@@ -60,5 +71,52 @@ public class Main {
         f = TabulatedFunctions.tabulate(LinkedListTabulatedFunction.class, new Sin(), 0, Math.PI, 11);
         System.out.println("\ntabulate with reflection (LinkedListTabulatedFunction, Sin): " + f.getClass());
         System.out.println(f);
+
+        System.out.println("\n__testing JFR events__");
+        checkJfrEvents();
+    }
+
+    // Записывает табулирование, текстовый вывод и ввод и интегрирование в jdk.jfr.Recording
+    // и проверяет, что все события попали в запись
+    private static void checkJfrEvents() {
+        try (Recording recording = new Recording()) {
+            recording.enable("functions.TabulatedFunctionOperation").withoutThreshold();
+            recording.enable("functions.Integration").withoutThreshold();
+            recording.start();
+
+            TabulatedFunction tabulated = TabulatedFunctions.tabulate(new Sin(), 0, Math.PI, 101);
+            StringWriter text = new StringWriter();
+            TabulatedFunctions.writeTabulatedFunction(tabulated, text);
+            TabulatedFunctions.readTabulatedFunction(new StringReader(text.toString()));
+            Functions.integrate(new Sin(), 0, Math.PI, 0.01);
+
+            recording.stop();
+            Path file = Files.createTempFile("functions", ".jfr");
+            try {
+                recording.dump(file);
+                Set<String> found = new HashSet<>();
+                for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                    String name = event.getEventType().getName();
+                    if (name.equals("functions.TabulatedFunctionOperation")) {
+                        found.add(event.getString("operation"));
+                        if (event.getString("operation").equals("write") && event.getLong("characters") != text.toString().length()) {
+                            throw new IllegalStateException("Неверное количество символов в событии: " + event.getLong("characters"));
+                        }
+                    } else if (name.equals("functions.Integration")) {
+                        found.add("integrate");
+                    }
+                }
+                for (String expected : new String[] {"tabulate", "write", "read", "integrate"}) {
+                    if (!found.contains(expected)) {
+                        throw new IllegalStateException("Событие " + expected + " не записано");
+                    }
+                }
+                System.out.println("JFR events: " + found);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при работе с записью JFR", e);
+        }
     }
 }
@@ -0,0 +1,215 @@
+package functions;
+
+import java.util.Iterator;
+
+// Табулированная функция, выбирающая внутреннее представление по наблюдаемой нагрузке.
+// Операции считаются окнами по WINDOW штук: если доля вставок и удалений в окне выше
+// TO_CHUNKED_RATIO, точки переносятся в блочное представление (ChunkedTabulatedFunction), где
+// вставка и удаление сдвигают не больше блока, а не весь массив; если ниже TO_ARRAY_RATIO - в массив.
+// Изменением считается и setPoint/setPointX: они тоже переписывают сетку
+// Пороги разнесены, а между переключениями должно пройти не меньше max(WINDOW, n) операций,
+// так что функция не переключается туда-обратно и перенос за O(n) окупается
+public class AdaptiveTabulatedFunction implements TabulatedFunction {
+    private static final long serialVersionUID = 11L;
+
+    private static final int WINDOW = 256;
+    private static final double TO_CHUNKED_RATIO = 0.25;
+    private static final double TO_ARRAY_RATIO = 0.05;
+
+    private TabulatedFunction function;
+    private transient int lookups;
+    private transient int modifications;
+    private transient long operationsSinceSwitch;
+    private transient int switchesCount;
+
+    public AdaptiveTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this.function = new ArrayTabulatedFunction(leftX, rightX, pointsCount);
+    }
+
+    public AdaptiveTabulatedFunction(double leftX, double rightX, double[] values) {
+        this.function = new ArrayTabulatedFunction(leftX, rightX, values);
+    }
+
+    public AdaptiveTabulatedFunction(FunctionPoint[] points) {
+        this.function = new ArrayTabulatedFunction(points);
+    }
+
+    private AdaptiveTabulatedFunction(TabulatedFunction function) {
+        this.function = function;
+    }
+
+    public static class AdaptiveTabulatedFunctionFactory implements TabulatedFunctionFactory {
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, int pointsCount) {
+            return new AdaptiveTabulatedFunction(leftX, rightX, pointsCount);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, double[] values) {
+            return new AdaptiveTabulatedFunction(leftX, rightX, values);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(FunctionPoint[] points) {
+            return new AdaptiveTabulatedFunction(points);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double[] xValues, double[] yValues) {
+            return new AdaptiveTabulatedFunction(new ArrayTabulatedFunction(xValues, yValues));
+        }
+
+        @Override
+        public TabulatedFunction createTrustedTabulatedFunction(double[] xValues, double[] yValues) {
+            return new AdaptiveTabulatedFunction(
+                    new ArrayTabulatedFunction.ArrayTabulatedFunctionFactory().createTrustedTabulatedFunction(xValues, yValues));
+        }
+    }
+
+    // Текущее представление: true, если точки хранятся блоками
+    public boolean isChunked() {
+        return function instanceof ChunkedTabulatedFunction;
+    }
+
+    public int getSwitchesCount() {
+        return switchesCount;
+    }
+
+    private void lookup() {
+        lookups++;
+        if (lookups + modifications >= WINDOW) {
+            adapt();
+        }
+    }
+
+    private void modification() {
+        modifications++;
+        if (lookups + modifications >= WINDOW) {
+            adapt();
+        }
+    }
+
+    private void adapt() {
+        double ratio = (double) modifications / (lookups + modifications);
+        operationsSinceSwitch += lookups + modifications;
+        lookups = 0;
+        modifications = 0;
+        if (operationsSinceSwitch < function.getPointsCount()) {
+            return;
+        }
+
+        boolean toChunked = !isChunked() && ratio > TO_CHUNKED_RATIO;
+        boolean toArray = isChunked() && ratio < TO_ARRAY_RATIO;
+        if (!toChunked && !toArray) {
+            return;
+        }
+
+        // Точки уже упорядочены, поэтому копируются массивами без повторной проверки
+        double[][] arrays = TabulatedOperations.toArrays(function);
+        function = toChunked
+                ? new ChunkedTabulatedFunction(arrays[0], arrays[1])
+                : new ArrayTabulatedFunction.ArrayTabulatedFunctionFactory().createTrustedTabulatedFunction(arrays[0], arrays[1]);
+        operationsSinceSwitch = 0;
+        switchesCount++;
+        if (TabulatedFunctionMetrics.ENABLED) {
+            TabulatedFunctionMetrics.recordRepresentationSwitch(toChunked);
+        }
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        lookup();
+        return function.getFunctionValue(x);
+    }
+
+    @Override
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        lookup();
+        return function.getPoint(index);
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        modification();
+        function.setPoint(index, point);
+    }
+
+    @Override
+    public double getPointX(int index) {
+        lookup();
+        return function.getPointX(index);
+    }
+
+    @Override
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        modification();
+        function.setPointX(index, x);
+    }
+
+    @Override
+    public double getPointY(int index) {
+        lookup();
+        return function.getPointY(index);
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        lookup();
+        function.setPointY(index, y);
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        modification();
+        function.deletePoint(index);
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        modification();
+        function.addPoint(point);
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        return function.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return function.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof AdaptiveTabulatedFunction) {
+            return function.equals(((AdaptiveTabulatedFunction) o).function);
+        }
+        return function.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return function.hashCode();
+    }
+
+    @Override
+    public Object clone() {
+        return new AdaptiveTabulatedFunction((TabulatedFunction) function.clone());
+    }
+}
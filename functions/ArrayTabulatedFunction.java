@@ -1,15 +1,46 @@
 package functions;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
-    private static final long serialVersionUID = 2L;    
+    private static final long serialVersionUID = 16L;
 
-    private FunctionPoint[] points;
-    private int pointsCount;
+    // Точки хранятся блоками по CHUNK_SIZE: точка i лежит в chunks[i >> CHUNK_SHIFT] на позиции
+    // i & CHUNK_MASK, последний блок может быть короче. Клон копирует только массив ссылок на блоки
+    // и увеличивает у блоков счётчик владельцев; блок с несколькими владельцами копируется перед
+    // первой записью в него, единственный владелец пишет на месте. Счётчик не уменьшается, когда
+    // клон просто забыт, поэтому такой блок скопируется ещё один раз, но только он, а не весь массив.
+    // Сами FunctionPoint не изменяются на месте, поэтому копия блока неглубокая
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final class Chunk {
+        private final FunctionPoint[] points;
+        private final AtomicInteger owners = new AtomicInteger(1);
+
+        Chunk(FunctionPoint[] points) {
+            this.points = points;
+        }
+    }
+
+    // Сериализуются вручную в writeObject/readObject: количество точек и пары координат
+    private transient Chunk[] chunks;
+    private transient int chunksCount;
+    private transient int pointsCount;
+    // XOR хэшей всех точек; поддерживается при каждом изменении, поэтому hashCode() работает за O(1)
+    private transient int pointsHash;
     private static final double EPSILON = 1e-9;
+    // Размер блока координат при сравнении со списком
+    private static final int COMPARE_BLOCK = 256;
 
     public ArrayTabulatedFunction(double leftX, double rightX, int pointsCount){
         if (leftX >= rightX) {
@@ -19,13 +50,13 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             throw new IllegalArgumentException("Количество точек должно быть >=2");
         }
 
-        points = new FunctionPoint[pointsCount + 2];
+        allocate(pointsCount);
         this.pointsCount = pointsCount;
         double distance = (rightX - leftX)/(pointsCount - 1);
 
         for (int i = 0; i < pointsCount; i++){
             double x = leftX + i * distance;
-            points[i] = new FunctionPoint(x, 0.0);
+            put(i, new FunctionPoint(x, 0.0));
         }
     }
 
@@ -39,12 +70,12 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         }
 
         this.pointsCount = values.length;
-        points = new FunctionPoint[pointsCount + 2];
+        allocate(pointsCount);
         double distance = (rightX - leftX)/(pointsCount - 1);
 
         for (int i = 0; i < pointsCount; i++){
             double x = leftX + i * distance;
-            points[i] = new FunctionPoint(x, values[i]);
+            put(i, new FunctionPoint(x, values[i]));
         }
     }
 
@@ -62,10 +93,37 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         }
 
         this.pointsCount = points.length;
-        this.points = new FunctionPoint[pointsCount + 2];
+        allocate(pointsCount);
 
         for (int i = 0; i < pointsCount; i++) {
-            this.points[i] = new FunctionPoint(points[i]);
+            put(i, new FunctionPoint(points[i]));
+        }
+    }
+
+    public ArrayTabulatedFunction(double[] xValues, double[] yValues) {
+        this(xValues, yValues, false);
+    }
+
+    // trusted: массивы уже проверены вызывающим кодом, проверки пропускаются
+    private ArrayTabulatedFunction(double[] xValues, double[] yValues, boolean trusted) {
+        if (!trusted) {
+            if (xValues.length != yValues.length) {
+                throw new IllegalArgumentException("Массивы абсцисс и ординат должны быть одной длины");
+            }
+            if (xValues.length < 2) {
+                throw new IllegalArgumentException("Количество точек должно быть >= 2");
+            }
+            for (int i = 1; i < xValues.length; i++) {
+                if (doubleLessOrEquals(xValues[i], xValues[i - 1])) {
+                    throw new IllegalArgumentException("Точки должны возрастать по абсциссе");
+                }
+            }
+        }
+
+        this.pointsCount = xValues.length;
+        allocate(pointsCount);
+        for (int i = 0; i < pointsCount; i++) {
+            put(i, new FunctionPoint(xValues[i], yValues[i]));
         }
     }
 
@@ -83,6 +141,17 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         public TabulatedFunction createTabulatedFunction(FunctionPoint[] points){
             return new ArrayTabulatedFunction(points);
         }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double[] xValues, double[] yValues) {
+            return new ArrayTabulatedFunction(xValues, yValues);
+        }
+
+        // Точки хранятся объектами FunctionPoint, поэтому доверенный режим только пропускает проверки
+        @Override
+        public TabulatedFunction createTrustedTabulatedFunction(double[] xValues, double[] yValues) {
+            return new ArrayTabulatedFunction(xValues, yValues, true);
+        }
     }
 
     @Override
@@ -90,7 +159,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (pointsCount == 0) {
             throw new IllegalStateException("Функция не содержит точек");
         }
-        return points[0].getX();
+        return point(0).getX();
     }
 
     @Override
@@ -98,7 +167,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (pointsCount == 0) {
             throw new IllegalStateException("Функция не содержит точек");
         }
-        return points[pointsCount - 1].getX();
+        return point(pointsCount - 1).getX();
     }
 
     @Override
@@ -107,20 +176,29 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             return Double.NaN;
         }
         for (int i = 0; i < pointsCount - 1; i++){
-            double x_1 = points[i].getX();
-            double x_2 = points[i + 1].getX();
+            double x_1 = point(i).getX();
+            double x_2 = point(i + 1).getX();
 
             if (doubleEquals(x, x_1)){
-                return points[i].getY();
+                if (TabulatedFunctionMetrics.ENABLED) {
+                    TabulatedFunctionMetrics.recordLookup(i + 1);
+                }
+                return point(i).getY();
             }
 
             if (doubleEquals(x, x_2)){
-                return points[i + 1].getY();
+                if (TabulatedFunctionMetrics.ENABLED) {
+                    TabulatedFunctionMetrics.recordLookup(i + 1);
+                }
+                return point(i + 1).getY();
             }
 
             if (doubleGreater(x, x_1) && doubleLess(x, x_2)){
-                double y_1 = points[i].getY();
-                double y_2 = points[i + 1].getY();
+                if (TabulatedFunctionMetrics.ENABLED) {
+                    TabulatedFunctionMetrics.recordLookup(i + 1);
+                }
+                double y_1 = point(i).getY();
+                double y_2 = point(i + 1).getY();
 
                 return (x - x_1) * (y_2 - y_1) / (x_2 - x_1) + y_1;
             }
@@ -138,7 +216,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
         }
-        return new FunctionPoint(points[index]);
+        return new FunctionPoint(point(index));
     }
 
     @Override
@@ -149,14 +227,14 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
         }
-        if (index > 0 && doubleLessOrEquals(point.getX(), points[index - 1].getX())) {
+        if (index > 0 && doubleLessOrEquals(point.getX(), point(index - 1).getX())) {
             throw new InappropriateFunctionPointException("Новая точка должна быть больше предыдущей по x");
         }
-        if (index < pointsCount - 1 &&  doubleGreaterOrEquals(point.getX(), points[index + 1].getX())) {
+        if (index < pointsCount - 1 &&  doubleGreaterOrEquals(point.getX(), point(index + 1).getX())) {
             throw new InappropriateFunctionPointException("Новая точка должна быть меньше следующей по x");
         }
         
-        points[index] = new FunctionPoint(point);
+        replace(index, new FunctionPoint(point));
     }
     
     @Override
@@ -164,7 +242,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
         }
-        return points[index].getX();
+        return point(index).getX();
     }
 
     @Override
@@ -172,14 +250,14 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
         }
-        if (index > 0 && doubleLessOrEquals(x, points[index - 1].getX())) {
+        if (index > 0 && doubleLessOrEquals(x, point(index - 1).getX())) {
             throw new InappropriateFunctionPointException("Новая x-координата должна быть больше предыдущей");
         }
-        if (index < pointsCount - 1 && doubleGreaterOrEquals(x, points[index + 1].getX())) {
+        if (index < pointsCount - 1 && doubleGreaterOrEquals(x, point(index + 1).getX())) {
             throw new InappropriateFunctionPointException("Новая x-координата должна быть меньше следующей");
         }
         
-        points[index].setX(x);
+        replace(index, new FunctionPoint(x, point(index).getY()));
     }
 
     @Override
@@ -187,7 +265,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index <0 || index >= pointsCount){
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
         }
-        return points[index].getY();
+        return point(index).getY();
     }    
     
     @Override
@@ -195,7 +273,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (index < 0 || index >= pointsCount){
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
         }
-        points[index].setY(y);
+        replace(index, new FunctionPoint(point(index).getX(), y));
     }
 
     @Override
@@ -207,9 +285,17 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
         }
 
-        System.arraycopy(points, index + 1, points, index, pointsCount - index - 1);
+        pointsHash ^= point(index).hashCode();
+        // Сдвиг влево по блокам от удаляемой точки до конца; копируются только затронутые общие блоки
+        int lastChunk = (pointsCount - 1) >>> CHUNK_SHIFT;
+        for (int c = index >>> CHUNK_SHIFT; c <= lastChunk; c++) {
+            FunctionPoint[] target = writableChunk(c).points;
+            int start = c == index >>> CHUNK_SHIFT ? index & CHUNK_MASK : 0;
+            int end = c == lastChunk ? (pointsCount - 1) & CHUNK_MASK : CHUNK_MASK;
+            System.arraycopy(target, start + 1, target, start, end - start);
+            target[end] = c < lastChunk ? chunks[c + 1].points[0] : null;
+        }
         pointsCount--;
-        points[pointsCount] = null;
     }
 
     @Override
@@ -220,18 +306,27 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         FunctionPoint newPoint = new FunctionPoint(point);
         int newIndex = 0;
         
-        while (newIndex < pointsCount && doubleLess(points[newIndex].getX(), newPoint.getX())) {
+        while (newIndex < pointsCount && doubleLess(point(newIndex).getX(), newPoint.getX())) {
          newIndex++;
         }
-        if  (newIndex < pointsCount && doubleEquals(points[newIndex].getX(), newPoint.getX())) {
+        if  (newIndex < pointsCount && doubleEquals(point(newIndex).getX(), newPoint.getX())) {
             throw new InappropriateFunctionPointException("Такая точка уже существует");
         }
-        if (pointsCount == points.length) {
-            increaseArraySize();
-        }
-        
-        System.arraycopy(points, newIndex, points, newIndex + 1, pointsCount - newIndex);
-        points[newIndex] = newPoint;
+        ensureCapacity(pointsCount + 1);
+
+        // Сдвиг вправо по блокам: последняя точка каждого блока переносится в начало следующего
+        FunctionPoint carry = newPoint;
+        int lastChunk = pointsCount >>> CHUNK_SHIFT;
+        for (int c = newIndex >>> CHUNK_SHIFT; c <= lastChunk; c++) {
+            FunctionPoint[] target = writableChunk(c).points;
+            int start = c == newIndex >>> CHUNK_SHIFT ? newIndex & CHUNK_MASK : 0;
+            int end = c == lastChunk ? pointsCount & CHUNK_MASK : CHUNK_MASK;
+            FunctionPoint out = target[end];
+            System.arraycopy(target, start, target, start + 1, end - start);
+            target[start] = carry;
+            carry = out;
+        }
+        pointsHash ^= newPoint.hashCode();
         pointsCount++;
     }
 
@@ -241,7 +336,8 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         str.append("{");
 
         for (int i = 0; i < pointsCount; i++) {
-            str.append("(").append(points[i].getX()).append("; ").append(points[i].getY()).append(")");
+            FunctionPoint point = point(i);
+            str.append("(").append(point.getX()).append("; ").append(point.getY()).append(")");
             if (i < pointsCount - 1){
                 str.append(",");
             }
@@ -262,25 +358,52 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         if (this.getPointsCount() != newFunc.getPointsCount()) {
             return false;
         }
+        // Быстрый отказ по границам области определения: они доступны за O(1) в любой реализации.
+        // Хэш для отказа не годится: точки сравниваются с допуском EPSILON, а хэш точный
+        if (pointsCount > 0 && (!doubleEquals(getLeftDomainBorder(), newFunc.getLeftDomainBorder())
+                || !doubleEquals(getRightDomainBorder(), newFunc.getRightDomainBorder()))) {
+            return false;
+        }
         if (o instanceof ArrayTabulatedFunction) {
             ArrayTabulatedFunction newArrayFunc = (ArrayTabulatedFunction) o;
             for (int i = 0; i < pointsCount; i++) {
-                if (!doubleEquals(points[i].getX(), newArrayFunc.points[i].getX())){
+                FunctionPoint point = point(i);
+                FunctionPoint newPoint = newArrayFunc.point(i);
+                if (!doubleEquals(point.getX(), newPoint.getX())){
                     return false;
                 }
-                if (!doubleEquals(points[i].getY(), newArrayFunc.points[i].getY())) {
+                if (!doubleEquals(point.getY(), newPoint.getY())) {
                     return false;
                 }
             }
             
+        } else if (o instanceof LinkedListTabulatedFunction) {
+            // Координаты списка копируются блоками за один проход по узлам
+            LinkedListTabulatedFunction newList = (LinkedListTabulatedFunction) o;
+            double[] xs = new double[Math.min(pointsCount, COMPARE_BLOCK)];
+            double[] ys = new double[xs.length];
+            for (int from = 0; from < pointsCount; from += xs.length) {
+                int count = Math.min(xs.length, pointsCount - from);
+                newList.copyTo(xs, ys, from, count);
+                for (int i = 0; i < count; i++) {
+                    FunctionPoint point = point(from + i);
+                    if (!doubleEquals(point.getX(), xs[i])){
+                        return false;
+                    }
+                    if (!doubleEquals(point.getY(), ys[i])) {
+                        return false;
+                    }
+                }
+            }
         } else {
+            // Любая другая реализация обходится итератором за один проход
+            Iterator<FunctionPoint> iterator = newFunc.iterator();
             for (int i = 0; i < pointsCount; i++) {
-                FunctionPoint thisPoint = this.getPoint(i);
-                FunctionPoint newPoint = newFunc.getPoint(i);
-                if (!doubleEquals(thisPoint.getX(), newPoint.getX())){
+                FunctionPoint point = iterator.next();
+                if (!doubleEquals(point(i).getX(), point.getX())){
                     return false;
                 }
-                if (!doubleEquals(thisPoint.getY(), newPoint.getY())) {
+                if (!doubleEquals(point(i).getY(), point.getY())) {
                     return false;
                 }
             }
@@ -290,20 +413,17 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
     
     @Override
     public int hashCode() {
-        int hash = pointsCount; // Включаем количество точек в хэш
-        for (int i = 0; i < pointsCount; i++) {
-            hash ^= points[i].hashCode();
-        }
-        return hash;
+        return pointsCount ^ pointsHash; // Включаем количество точек в хэш
     }
 
     @Override
     public Object clone() {
         try {
+            // Клон за O(n / CHUNK_SIZE): блоки общие, каждый копируется той стороной, которая первой его изменит
             ArrayTabulatedFunction cloned = (ArrayTabulatedFunction) super.clone();
-            cloned.points = new FunctionPoint[this.points.length];
-            for (int i = 0; i < this.pointsCount; i++) {
-                cloned.points[i] = (FunctionPoint) this.points[i].clone();
+            cloned.chunks = chunks.clone();
+            for (int c = 0; c < chunksCount; c++) {
+                chunks[c].owners.incrementAndGet();
             }
             return cloned;
         } catch (CloneNotSupportedException e) {
@@ -327,7 +447,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
                 if(!hasNext()) {
                     throw new NoSuchElementException ("В табулированной функции кончились точки");
                 }
-                return new FunctionPoint(points[currentIndex++]);
+                return new FunctionPoint(point(currentIndex++));
             }
 
             @Override
@@ -338,10 +458,103 @@ public class ArrayTabulatedFunction implements TabulatedFunction, Serializable {
         };
     }
 
-    private void increaseArraySize() {
-        FunctionPoint[] newArray = new FunctionPoint[points.length * 2 + 2];
-        System.arraycopy(points, 0, newArray, 0, pointsCount);
-        points = newArray;
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(pointsCount);
+        for (int i = 0; i < pointsCount; i++) {
+            FunctionPoint point = point(i);
+            out.writeDouble(point.getX());
+            out.writeDouble(point.getY());
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new InvalidObjectException("Некорректное количество точек: " + count);
+        }
+        allocate(count);
+        for (int i = 0; i < count; i++) {
+            double x = in.readDouble();
+            double y = in.readDouble();
+            put(i, new FunctionPoint(x, y));
+        }
+        pointsCount = count;
+    }
+
+    // Координаты точек с номерами from..from + count - 1 записываются в xs и ys с нулевой позиции:
+    // массовое чтение внутреннего хранилища без создания FunctionPoint
+    void copyTo(double[] xs, double[] ys, int from, int count) {
+        if (from < 0 || count < 0 || from + count > pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Диапазон " + from + ".." + (from + count - 1) + " не входит в диапазон");
+        }
+        for (int i = 0; i < count; i++) {
+            FunctionPoint point = point(from + i);
+            xs[i] = point.getX();
+            ys[i] = point.getY();
+        }
+    }
+
+    private FunctionPoint point(int index) {
+        return chunks[index >>> CHUNK_SHIFT].points[index & CHUNK_MASK];
+    }
+
+    // Запись в только что выделенное хранилище (конструкторы, readObject)
+    private void put(int index, FunctionPoint point) {
+        chunks[index >>> CHUNK_SHIFT].points[index & CHUNK_MASK] = point;
+        pointsHash ^= point.hashCode();
+    }
+
+    private void replace(int index, FunctionPoint point) {
+        FunctionPoint[] target = writableChunk(index >>> CHUNK_SHIFT).points;
+        pointsHash ^= target[index & CHUNK_MASK].hashCode();
+        target[index & CHUNK_MASK] = point;
+        pointsHash ^= point.hashCode();
+    }
+
+    // Блок, в который можно писать: общий с клонами блок заменяется собственной копией
+    private Chunk writableChunk(int c) {
+        Chunk chunk = chunks[c];
+        if (chunk.owners.get() > 1) {
+            Chunk own = new Chunk(chunk.points.clone());
+            // После копирования: до этого другой владелец не должен писать в блок на месте
+            chunk.owners.decrementAndGet();
+            chunks[c] = own;
+            return own;
+        }
+        return chunk;
+    }
+
+    // Хранилище на count точек с запасом на две вставки, как раньше у массива
+    private void allocate(int count) {
+        int capacity = count + 2;
+        chunksCount = (capacity + CHUNK_MASK) >>> CHUNK_SHIFT;
+        chunks = new Chunk[chunksCount];
+        for (int c = 0; c < chunksCount; c++) {
+            chunks[c] = new Chunk(new FunctionPoint[Math.min(CHUNK_SIZE, capacity - (c << CHUNK_SHIFT))]);
+        }
+    }
+
+    // Короткий последний блок удлиняется вдвое (до CHUNK_SIZE), полный - дополняется новым блоком;
+    // прежние блоки при этом не копируются
+    private void ensureCapacity(int count) {
+        while (((chunksCount - 1) << CHUNK_SHIFT) + chunks[chunksCount - 1].points.length < count) {
+            if (TabulatedFunctionMetrics.ENABLED) {
+                TabulatedFunctionMetrics.recordArrayGrowth();
+            }
+            Chunk last = chunks[chunksCount - 1];
+            if (last.points.length < CHUNK_SIZE) {
+                int length = Math.min(CHUNK_SIZE, last.points.length * 2 + 2);
+                chunks[chunksCount - 1] = new Chunk(Arrays.copyOf(last.points, length));
+                last.owners.decrementAndGet();
+            } else {
+                if (chunksCount == chunks.length) {
+                    chunks = Arrays.copyOf(chunks, chunksCount * 2);
+                }
+                chunks[chunksCount++] = new Chunk(new FunctionPoint[CHUNK_SIZE]);
+            }
+        }
     }
 
     private boolean doubleEquals(double a, double b) {
@@ -0,0 +1,104 @@
+package functions;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Асинхронная загрузка и сохранение табулированных функций в двоичном формате
+// TabulatedFunctions.outputTabulatedFunction. Операции выполняются пулом из maxConcurrency
+// потоков, так что одновременно открыто не больше maxConcurrency файлов; остальные ждут в очереди.
+// Пока одни потоки ждут диск, другие разбирают уже прочитанные данные.
+// load(path) создаёт функцию фабрикой, действовавшей в вызывающем потоке в момент вызова,
+// в том числе заданной через TabulatedFunctions.withTabulatedFunctionFactory
+public class AsyncTabulatedFunctionIO implements AutoCloseable {
+    private final ExecutorService executor;
+    private final int maxConcurrency;
+
+    public AsyncTabulatedFunctionIO(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Количество одновременных операций должно быть >=1");
+        }
+        this.maxConcurrency = maxConcurrency;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrency, task -> {
+            Thread thread = new Thread(task, "tabulated-function-io-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public CompletableFuture<TabulatedFunction> load(Path path) {
+        TabulatedFunctionFactory factory = TabulatedFunctions.getTabulatedFunctionFactory();
+        return CompletableFuture.supplyAsync(() -> TabulatedFunctions.withTabulatedFunctionFactory(factory, () -> {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return TabulatedFunctions.inputTabulatedFunction(channel);
+            } catch (IOException e) {
+                throw new RuntimeException("Ошибка при вводе функции из " + path, e);
+            }
+        }), executor);
+    }
+
+    public CompletableFuture<TabulatedFunction> load(Class<?> functionClass, Path path) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return TabulatedFunctions.inputTabulatedFunction(functionClass, channel);
+            } catch (IOException e) {
+                throw new RuntimeException("Ошибка при вводе функции из " + path, e);
+            }
+        }, executor);
+    }
+
+    public CompletableFuture<Void> save(TabulatedFunction function, Path path) {
+        return CompletableFuture.runAsync(() -> {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                TabulatedFunctions.outputTabulatedFunction(function, channel);
+            } catch (IOException e) {
+                throw new RuntimeException("Ошибка при выводе функции в " + path, e);
+            }
+        }, executor);
+    }
+
+    // Функции в порядке путей; при ошибке любой загрузки результат завершается этой ошибкой
+    public CompletableFuture<List<TabulatedFunction>> loadAll(List<Path> paths) {
+        List<CompletableFuture<TabulatedFunction>> futures = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            futures.add(load(path));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<TabulatedFunction> functions = new ArrayList<>(futures.size());
+            for (CompletableFuture<TabulatedFunction> future : futures) {
+                functions.add(future.join());
+            }
+            return functions;
+        });
+    }
+
+    public CompletableFuture<Void> saveAll(List<? extends TabulatedFunction> functions, List<Path> paths) {
+        if (functions.size() != paths.size()) {
+            throw new IllegalArgumentException("Количество функций и путей не совпадает");
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[functions.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = save(functions.get(i), paths.get(i));
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    // Уже поставленные операции завершаются, новые не принимаются
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
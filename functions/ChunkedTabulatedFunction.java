@@ -0,0 +1,456 @@
+package functions;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Представление AdaptiveTabulatedFunction для нагрузки с частыми вставками и удалениями.
+// Точки лежат в блоках не больше BLOCK_SIZE точек; starts[b] - номер первой точки блока b.
+// Вставка и удаление сдвигают точки только внутри одного блока и номера начал следующих блоков:
+// O(BLOCK_SIZE + n / BLOCK_SIZE) вместо O(n) у массива. Полный блок делится пополам, пустой
+// удаляется. Поиск точки по номеру и по абсциссе - двоичный поиск по блокам, затем внутри блока
+final class ChunkedTabulatedFunction implements TabulatedFunction {
+    private static final long serialVersionUID = 18L;
+    private static final int BLOCK_SIZE = 512;
+    private static final double EPSILON = 1e-9;
+
+    private static final class Block {
+        private final double[] xs = new double[BLOCK_SIZE];
+        private final double[] ys = new double[BLOCK_SIZE];
+        private int size;
+    }
+
+    // Сериализуются вручную в writeObject/readObject: количество точек и пары координат
+    private transient Block[] blocks;
+    private transient int[] starts;
+    private transient int blocksCount;
+    private transient int pointsCount;
+    // XOR хэшей всех точек, как в ArrayTabulatedFunction
+    private transient int pointsHash;
+
+    // Массивы берутся из существующей функции и не проверяются; блоки заполняются наполовину,
+    // чтобы первые вставки не делили их
+    ChunkedTabulatedFunction(double[] xValues, double[] yValues) {
+        fill(xValues, yValues, xValues.length);
+    }
+
+    private void fill(double[] xValues, double[] yValues, int count) {
+        int perBlock = BLOCK_SIZE / 2;
+        blocksCount = Math.max(1, (count + perBlock - 1) / perBlock);
+        blocks = new Block[blocksCount + 1];
+        starts = new int[blocksCount + 2];
+        pointsCount = count;
+        pointsHash = 0;
+        for (int b = 0; b < blocksCount; b++) {
+            Block block = new Block();
+            int from = b * perBlock;
+            block.size = Math.min(perBlock, count - from);
+            System.arraycopy(xValues, from, block.xs, 0, block.size);
+            System.arraycopy(yValues, from, block.ys, 0, block.size);
+            for (int i = 0; i < block.size; i++) {
+                pointsHash ^= Double.hashCode(block.xs[i]) ^ Double.hashCode(block.ys[i]);
+            }
+            blocks[b] = block;
+            starts[b] = from;
+        }
+        starts[blocksCount] = count;
+    }
+
+    // Блок, содержащий точку с номером index
+    private int blockOf(int index) {
+        int low = 0;
+        int high = blocksCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (starts[middle] <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private double xAt(int index) {
+        int b = blockOf(index);
+        return blocks[b].xs[index - starts[b]];
+    }
+
+    private double yAt(int index) {
+        int b = blockOf(index);
+        return blocks[b].ys[index - starts[b]];
+    }
+
+    // Количество точек с абсциссой меньше x (с учётом EPSILON)
+    private int countLess(double x) {
+        int low = 0;
+        int high = blocksCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (doubleLess(blocks[middle].xs[0], x)) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        Block block = blocks[low];
+        int i = 0;
+        int j = block.size;
+        while (i < j) {
+            int middle = (i + j) >>> 1;
+            if (doubleLess(block.xs[middle], x)) {
+                i = middle + 1;
+            } else {
+                j = middle;
+            }
+        }
+        return starts[low] + i;
+    }
+
+    private void shiftStarts(int fromBlock, int delta) {
+        for (int b = fromBlock; b <= blocksCount; b++) {
+            starts[b] += delta;
+        }
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return blocks[0].xs[0];
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        Block last = blocks[blocksCount - 1];
+        return last.xs[last.size - 1];
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        if (doubleLess(x, getLeftDomainBorder()) || doubleGreater(x, getRightDomainBorder())) {
+            return Double.NaN;
+        }
+        int i = countLess(x);
+        if (TabulatedFunctionMetrics.ENABLED) {
+            // Отрезок находится двоичным поиском, просматривается только он
+            TabulatedFunctionMetrics.recordLookup(1);
+        }
+        if (i < pointsCount && doubleEquals(x, xAt(i))) {
+            return yAt(i);
+        }
+        if (i == 0) {
+            return yAt(0);
+        }
+        double x_1 = xAt(i - 1);
+        if (doubleEquals(x, x_1) || i == pointsCount) {
+            return yAt(i - 1);
+        }
+        double x_2 = xAt(i);
+        double y_1 = yAt(i - 1);
+        double y_2 = yAt(i);
+        return (x - x_1) * (y_2 - y_1) / (x_2 - x_1) + y_1;
+    }
+
+    @Override
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        int b = blockOf(index);
+        int i = index - starts[b];
+        return new FunctionPoint(blocks[b].xs[i], blocks[b].ys[i]);
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        if (point == null) {
+            throw new IllegalArgumentException("Точка без значения");
+        }
+        checkIndex(index);
+        checkNewX(index, point.getX());
+        replace(index, point.getX(), point.getY());
+    }
+
+    @Override
+    public double getPointX(int index) {
+        checkIndex(index);
+        return xAt(index);
+    }
+
+    @Override
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        if (index > 0 && doubleLessOrEquals(x, xAt(index - 1))) {
+            throw new InappropriateFunctionPointException("Новая x-координата должна быть больше предыдущей");
+        }
+        if (index < pointsCount - 1 && doubleGreaterOrEquals(x, xAt(index + 1))) {
+            throw new InappropriateFunctionPointException("Новая x-координата должна быть меньше следующей");
+        }
+        replace(index, x, yAt(index));
+    }
+
+    @Override
+    public double getPointY(int index) {
+        checkIndex(index);
+        return yAt(index);
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        checkIndex(index);
+        replace(index, xAt(index), y);
+    }
+
+    private void replace(int index, double x, double y) {
+        int b = blockOf(index);
+        Block block = blocks[b];
+        int i = index - starts[b];
+        pointsHash ^= Double.hashCode(block.xs[i]) ^ Double.hashCode(block.ys[i]);
+        block.xs[i] = x;
+        block.ys[i] = y;
+        pointsHash ^= Double.hashCode(x) ^ Double.hashCode(y);
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        if (pointsCount <= 2) {
+            throw new IllegalStateException("Минимальное количество точек: 3");
+        }
+        checkIndex(index);
+
+        int b = blockOf(index);
+        Block block = blocks[b];
+        int i = index - starts[b];
+        pointsHash ^= Double.hashCode(block.xs[i]) ^ Double.hashCode(block.ys[i]);
+        System.arraycopy(block.xs, i + 1, block.xs, i, block.size - i - 1);
+        System.arraycopy(block.ys, i + 1, block.ys, i, block.size - i - 1);
+        block.size--;
+        pointsCount--;
+        shiftStarts(b + 1, -1);
+        if (block.size == 0) {
+            System.arraycopy(blocks, b + 1, blocks, b, blocksCount - b - 1);
+            System.arraycopy(starts, b + 1, starts, b, blocksCount - b);
+            blocksCount--;
+            blocks[blocksCount] = null;
+        }
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        if (point == null) {
+            throw new IllegalArgumentException("Точка не может быть null");
+        }
+        double x = point.getX();
+        double y = point.getY();
+        int index = countLess(x);
+        if (index < pointsCount && doubleEquals(xAt(index), x)) {
+            throw new InappropriateFunctionPointException("Такая точка уже существует");
+        }
+
+        // Точка в конце дописывается в последний блок, иначе - в блок, где сейчас точка index
+        int b = index == pointsCount ? blocksCount - 1 : blockOf(index);
+        if (blocks[b].size == BLOCK_SIZE) {
+            split(b);
+            if (index - starts[b] > blocks[b].size) {
+                b++;
+            }
+        }
+        Block block = blocks[b];
+        int i = index - starts[b];
+        System.arraycopy(block.xs, i, block.xs, i + 1, block.size - i);
+        System.arraycopy(block.ys, i, block.ys, i + 1, block.size - i);
+        block.xs[i] = x;
+        block.ys[i] = y;
+        block.size++;
+        pointsCount++;
+        shiftStarts(b + 1, 1);
+        pointsHash ^= Double.hashCode(x) ^ Double.hashCode(y);
+    }
+
+    // Деление полного блока b пополам; вторая половина становится блоком b + 1
+    private void split(int b) {
+        if (blocksCount + 1 >= blocks.length) {
+            blocks = Arrays.copyOf(blocks, blocks.length * 2);
+            starts = Arrays.copyOf(starts, blocks.length + 1);
+        }
+        Block block = blocks[b];
+        Block second = new Block();
+        int half = block.size / 2;
+        second.size = block.size - half;
+        System.arraycopy(block.xs, half, second.xs, 0, second.size);
+        System.arraycopy(block.ys, half, second.ys, 0, second.size);
+        block.size = half;
+
+        System.arraycopy(blocks, b + 1, blocks, b + 2, blocksCount - b - 1);
+        System.arraycopy(starts, b + 1, starts, b + 2, blocksCount - b);
+        blocks[b + 1] = second;
+        starts[b + 1] = starts[b] + half;
+        blocksCount++;
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        return new Iterator<FunctionPoint>() {
+            private int block = 0;
+            private int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                return block < blocksCount && position < blocks[block].size;
+            }
+
+            @Override
+            public FunctionPoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("В табулированной функции кончились точки");
+                }
+                Block current = blocks[block];
+                FunctionPoint point = new FunctionPoint(current.xs[position], current.ys[position]);
+                if (++position == current.size) {
+                    block++;
+                    position = 0;
+                }
+                return point;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Операция удаления не поддерживается");
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        str.append("{");
+        for (int b = 0; b < blocksCount; b++) {
+            Block block = blocks[b];
+            for (int i = 0; i < block.size; i++) {
+                if (b > 0 || i > 0) {
+                    str.append(",");
+                }
+                str.append("(").append(block.xs[i]).append("; ").append(block.ys[i]).append(")");
+            }
+        }
+        str.append("}");
+        return str.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TabulatedFunction)) {
+            return false;
+        }
+        TabulatedFunction other = (TabulatedFunction) o;
+        if (pointsCount != other.getPointsCount()) {
+            return false;
+        }
+        Iterator<FunctionPoint> iterator = other.iterator();
+        for (int b = 0; b < blocksCount; b++) {
+            Block block = blocks[b];
+            for (int i = 0; i < block.size; i++) {
+                FunctionPoint point = iterator.next();
+                if (!doubleEquals(block.xs[i], point.getX()) || !doubleEquals(block.ys[i], point.getY())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return pointsCount ^ pointsHash;
+    }
+
+    @Override
+    public Object clone() {
+        double[][] arrays = toArrays();
+        return new ChunkedTabulatedFunction(arrays[0], arrays[1]);
+    }
+
+    // Координаты всех точек в виде {xValues, yValues}
+    double[][] toArrays() {
+        double[] xs = new double[pointsCount];
+        double[] ys = new double[pointsCount];
+        for (int b = 0; b < blocksCount; b++) {
+            System.arraycopy(blocks[b].xs, 0, xs, starts[b], blocks[b].size);
+            System.arraycopy(blocks[b].ys, 0, ys, starts[b], blocks[b].size);
+        }
+        return new double[][] {xs, ys};
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(pointsCount);
+        for (int b = 0; b < blocksCount; b++) {
+            for (int i = 0; i < blocks[b].size; i++) {
+                out.writeDouble(blocks[b].xs[i]);
+                out.writeDouble(blocks[b].ys[i]);
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count < 2) {
+            throw new InvalidObjectException("Некорректное количество точек: " + count);
+        }
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = in.readDouble();
+            ys[i] = in.readDouble();
+            if (i > 0 && doubleLessOrEquals(xs[i], xs[i - 1])) {
+                throw new InvalidObjectException("Точки должны возрастать по абсциссе");
+            }
+        }
+        fill(xs, ys, count);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
+        }
+    }
+
+    private void checkNewX(int index, double x) throws InappropriateFunctionPointException {
+        if (index > 0 && doubleLessOrEquals(x, xAt(index - 1))) {
+            throw new InappropriateFunctionPointException("Новая точка должна быть больше предыдущей по x");
+        }
+        if (index < pointsCount - 1 && doubleGreaterOrEquals(x, xAt(index + 1))) {
+            throw new InappropriateFunctionPointException("Новая точка должна быть меньше следующей по x");
+        }
+    }
+
+    private boolean doubleEquals(double a, double b) {
+        return Math.abs(a - b) < EPSILON;
+    }
+
+    private boolean doubleLess(double a, double b) {
+        return a < b - EPSILON;
+    }
+
+    private boolean doubleGreater(double a, double b) {
+        return a > b + EPSILON;
+    }
+
+    private boolean doubleLessOrEquals(double a, double b) {
+        return a < b + EPSILON;
+    }
+
+    private boolean doubleGreaterOrEquals(double a, double b) {
+        return a > b - EPSILON;
+    }
+}
@@ -0,0 +1,547 @@
+package functions;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Табулированная функция для одновременной работы многих потоков.
+// Одна блокировка ReentrantReadWriteLock защищает структуру (абсциссы и количество точек), ординаты
+// хранятся в AtomicLongArray. Чтение и setPointY берут блокировку в разделяемом режиме, поэтому
+// любое число читателей и записей y (в те же или разные точки) выполняется параллельно;
+// сама запись y - атомарная volatile-запись, разделяемая блокировка лишь не даёт индексу сместиться.
+// Операции, меняющие структуру (addPoint, deletePoint, setPointX, setPoint), берут блокировку
+// в исключительном режиме и выполняются атомарно относительно всех остальных операций; пока такая
+// операция ждёт или выполняется, новые чтения и setPointY ждут её (блокировка без разделения на участки).
+// getFunctionValue читает две соседние ординаты по отдельности: при одновременной записи
+// каждая из них берётся либо до, либо после изменения
+public class ConcurrentTabulatedFunction implements TabulatedFunction, Serializable {
+    private static final long serialVersionUID = 6L;
+
+    private transient ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private transient double[] xValues;
+    private transient AtomicLongArray yValues;
+    private transient int pointsCount;
+    private static final double EPSILON = 1e-9;
+
+    public ConcurrentTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this(leftX, rightX, new double[checkPointsCount(pointsCount)]);
+    }
+
+    public ConcurrentTabulatedFunction(double leftX, double rightX, double[] values) {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница области определения должна быть меньше правой");
+        }
+        if (values.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >=2");
+        }
+
+        pointsCount = values.length;
+        xValues = new double[pointsCount + 2];
+        yValues = new AtomicLongArray(pointsCount + 2);
+        double distance = (rightX - leftX) / (pointsCount - 1);
+
+        for (int i = 0; i < pointsCount; i++) {
+            xValues[i] = leftX + i * distance;
+            yValues.set(i, Double.doubleToRawLongBits(values[i]));
+        }
+    }
+
+    public ConcurrentTabulatedFunction(FunctionPoint[] points) {
+        if (points.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >= 2");
+        }
+        for (int i = 1; i < points.length; i++) {
+            if (points[i] == null || points[i - 1] == null) {
+                throw new IllegalArgumentException("Точки не могут быть null");
+            }
+            if (doubleLessOrEquals(points[i].getX(), points[i - 1].getX())) {
+                throw new IllegalArgumentException("Точки должны возрастать по абсциссе");
+            }
+        }
+
+        pointsCount = points.length;
+        xValues = new double[pointsCount + 2];
+        yValues = new AtomicLongArray(pointsCount + 2);
+        for (int i = 0; i < pointsCount; i++) {
+            xValues[i] = points[i].getX();
+            yValues.set(i, Double.doubleToRawLongBits(points[i].getY()));
+        }
+    }
+
+    public ConcurrentTabulatedFunction(double[] xValues, double[] yValues) {
+        this(xValues, yValues, false);
+    }
+
+    // trusted: массивы проверены вызывающим кодом, и массив абсцисс используется без копирования
+    private ConcurrentTabulatedFunction(double[] xValues, double[] yValues, boolean trusted) {
+        if (!trusted) {
+            if (xValues.length != yValues.length) {
+                throw new IllegalArgumentException("Массивы абсцисс и ординат должны быть одной длины");
+            }
+            if (xValues.length < 2) {
+                throw new IllegalArgumentException("Количество точек должно быть >= 2");
+            }
+            for (int i = 1; i < xValues.length; i++) {
+                if (doubleLessOrEquals(xValues[i], xValues[i - 1])) {
+                    throw new IllegalArgumentException("Точки должны возрастать по абсциссе");
+                }
+            }
+        }
+
+        pointsCount = xValues.length;
+        this.xValues = trusted ? xValues : Arrays.copyOf(xValues, pointsCount + 2);
+        this.yValues = new AtomicLongArray(this.xValues.length);
+        for (int i = 0; i < pointsCount; i++) {
+            this.yValues.set(i, Double.doubleToRawLongBits(yValues[i]));
+        }
+    }
+
+    private static int checkPointsCount(int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >=2");
+        }
+        return pointsCount;
+    }
+
+    public static class ConcurrentTabulatedFunctionFactory implements TabulatedFunctionFactory {
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, int pointsCount) {
+            return new ConcurrentTabulatedFunction(leftX, rightX, pointsCount);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, double[] values) {
+            return new ConcurrentTabulatedFunction(leftX, rightX, values);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(FunctionPoint[] points) {
+            return new ConcurrentTabulatedFunction(points);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double[] xValues, double[] yValues) {
+            return new ConcurrentTabulatedFunction(xValues, yValues);
+        }
+
+        @Override
+        public TabulatedFunction createTrustedTabulatedFunction(double[] xValues, double[] yValues) {
+            return new ConcurrentTabulatedFunction(xValues, yValues, true);
+        }
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        lock.readLock().lock();
+        try {
+            return xValues[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        lock.readLock().lock();
+        try {
+            return xValues[pointsCount - 1];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        lock.readLock().lock();
+        try {
+            if (doubleLess(x, xValues[0]) || doubleGreater(x, xValues[pointsCount - 1])) {
+                return Double.NaN;
+            }
+
+            // Двоичный поиск отрезка [x_1, x_2], содержащего x
+            int low = 0;
+            int high = pointsCount - 1;
+            while (high - low > 1) {
+                int middle = (low + high) >>> 1;
+                if (xValues[middle] <= x) {
+                    low = middle;
+                } else {
+                    high = middle;
+                }
+            }
+
+            double x_1 = xValues[low];
+            double x_2 = xValues[high];
+            if (doubleEquals(x, x_1)) {
+                return getY(low);
+            }
+            if (doubleEquals(x, x_2)) {
+                return getY(high);
+            }
+            double y_1 = getY(low);
+            double y_2 = getY(high);
+            return (x - x_1) * (y_2 - y_1) / (x_2 - x_1) + y_1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int getPointsCount() {
+        lock.readLock().lock();
+        try {
+            return pointsCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        lock.readLock().lock();
+        try {
+            checkIndex(index);
+            return new FunctionPoint(xValues[index], getY(index));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        if (point == null) {
+            throw new IllegalArgumentException("Точка без значения");
+        }
+        lock.writeLock().lock();
+        try {
+            checkIndex(index);
+            checkNewX(index, point.getX());
+            xValues[index] = point.getX();
+            yValues.set(index, Double.doubleToRawLongBits(point.getY()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public double getPointX(int index) {
+        lock.readLock().lock();
+        try {
+            checkIndex(index);
+            return xValues[index];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        lock.writeLock().lock();
+        try {
+            checkIndex(index);
+            checkNewX(index, x);
+            xValues[index] = x;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public double getPointY(int index) {
+        lock.readLock().lock();
+        try {
+            checkIndex(index);
+            return getY(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Разделяемая блокировка лишь фиксирует структуру: параллельные setPointY и чтения не ждут друг друга,
+    // ждут только структурных изменений. Сама запись ординаты атомарна
+    @Override
+    public void setPointY(int index, double y) {
+        lock.readLock().lock();
+        try {
+            checkIndex(index);
+            yValues.set(index, Double.doubleToRawLongBits(y));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        lock.writeLock().lock();
+        try {
+            if (pointsCount <= 2) {
+                throw new IllegalStateException("Минимальное количество точек: 2");
+            }
+            checkIndex(index);
+
+            System.arraycopy(xValues, index + 1, xValues, index, pointsCount - index - 1);
+            for (int i = index; i < pointsCount - 1; i++) {
+                yValues.set(i, yValues.get(i + 1));
+            }
+            pointsCount--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        if (point == null) {
+            throw new IllegalArgumentException("Точка не может быть null");
+        }
+        lock.writeLock().lock();
+        try {
+            int newIndex = 0;
+            while (newIndex < pointsCount && doubleLess(xValues[newIndex], point.getX())) {
+                newIndex++;
+            }
+            if (newIndex < pointsCount && doubleEquals(xValues[newIndex], point.getX())) {
+                throw new InappropriateFunctionPointException("Такая точка уже существует");
+            }
+            if (pointsCount == xValues.length) {
+                increaseArraySize();
+            }
+
+            System.arraycopy(xValues, newIndex, xValues, newIndex + 1, pointsCount - newIndex);
+            for (int i = pointsCount; i > newIndex; i--) {
+                yValues.set(i, yValues.get(i - 1));
+            }
+            xValues[newIndex] = point.getX();
+            yValues.set(newIndex, Double.doubleToRawLongBits(point.getY()));
+            pointsCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.readLock().lock();
+        try {
+            StringBuilder str = new StringBuilder();
+            str.append("{");
+            for (int i = 0; i < pointsCount; i++) {
+                str.append("(").append(xValues[i]).append("; ").append(getY(i)).append(")");
+                if (i < pointsCount - 1) {
+                    str.append(",");
+                }
+            }
+            str.append("}");
+            return str.toString();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Сравнение снимков: блокировка этой функции снимается до обращения к другой,
+    // поэтому встречные a.equals(b) и b.equals(a) не могут заблокировать друг друга
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TabulatedFunction)) {
+            return false;
+        }
+
+        double[][] own = snapshotArrays();
+        double[] xs = own[0];
+        double[] ys = own[1];
+        if (o instanceof ConcurrentTabulatedFunction) {
+            double[][] other = ((ConcurrentTabulatedFunction) o).snapshotArrays();
+            if (xs.length != other[0].length) {
+                return false;
+            }
+            for (int i = 0; i < xs.length; i++) {
+                if (!doubleEquals(xs[i], other[0][i]) || !doubleEquals(ys[i], other[1][i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        TabulatedFunction newFunc = (TabulatedFunction) o;
+        if (xs.length != newFunc.getPointsCount()) {
+            return false;
+        }
+        int i = 0;
+        for (FunctionPoint point : newFunc) {
+            if (i == xs.length || !doubleEquals(xs[i], point.getX()) || !doubleEquals(ys[i], point.getY())) {
+                return false;
+            }
+            i++;
+        }
+        return i == xs.length;
+    }
+
+    @Override
+    public int hashCode() {
+        lock.readLock().lock();
+        try {
+            int hash = pointsCount; // Включаем количество точек в хэш
+            for (int i = 0; i < pointsCount; i++) {
+                hash ^= Double.hashCode(xValues[i]) ^ Double.hashCode(getY(i));
+            }
+            return hash;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Object clone() {
+        lock.readLock().lock();
+        try {
+            return new ConcurrentTabulatedFunction(toPoints());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Итератор обходит снимок точек, сделанный в момент его создания
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        final FunctionPoint[] points;
+        lock.readLock().lock();
+        try {
+            points = toPoints();
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new Iterator<FunctionPoint>() {
+            private int currentIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < points.length;
+            }
+
+            @Override
+            public FunctionPoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("В табулированной функции кончились точки");
+                }
+                return points[currentIndex++];
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Операция удаления не поддерживается");
+            }
+        };
+    }
+
+    private double[][] snapshotArrays() {
+        lock.readLock().lock();
+        try {
+            double[] ys = new double[pointsCount];
+            for (int i = 0; i < pointsCount; i++) {
+                ys[i] = getY(i);
+            }
+            return new double[][] {Arrays.copyOf(xValues, pointsCount), ys};
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private FunctionPoint[] toPoints() {
+        FunctionPoint[] points = new FunctionPoint[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            points[i] = new FunctionPoint(xValues[i], getY(i));
+        }
+        return points;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.defaultWriteObject();
+            out.writeInt(pointsCount);
+            for (int i = 0; i < pointsCount; i++) {
+                out.writeDouble(xValues[i]);
+                out.writeDouble(getY(i));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new InvalidObjectException("Некорректное количество точек: " + count);
+        }
+        lock = new ReentrantReadWriteLock();
+        xValues = new double[count + 2];
+        yValues = new AtomicLongArray(count + 2);
+        for (int i = 0; i < count; i++) {
+            xValues[i] = in.readDouble();
+            yValues.set(i, Double.doubleToRawLongBits(in.readDouble()));
+        }
+        pointsCount = count;
+    }
+
+    private double getY(int index) {
+        return Double.longBitsToDouble(yValues.get(index));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
+        }
+    }
+
+    private void checkNewX(int index, double x) throws InappropriateFunctionPointException {
+        if (index > 0 && doubleLessOrEquals(x, xValues[index - 1])) {
+            throw new InappropriateFunctionPointException("Новая точка должна быть больше предыдущей по x");
+        }
+        if (index < pointsCount - 1 && doubleGreaterOrEquals(x, xValues[index + 1])) {
+            throw new InappropriateFunctionPointException("Новая точка должна быть меньше следующей по x");
+        }
+    }
+
+    private void increaseArraySize() {
+        int capacity = xValues.length * 2 + 2;
+        double[] newX = new double[capacity];
+        AtomicLongArray newY = new AtomicLongArray(capacity);
+        System.arraycopy(xValues, 0, newX, 0, pointsCount);
+        for (int i = 0; i < pointsCount; i++) {
+            newY.set(i, yValues.get(i));
+        }
+        xValues = newX;
+        yValues = newY;
+    }
+
+    private boolean doubleEquals(double a, double b) {
+        return Math.abs(a - b) < EPSILON;
+    }
+
+    private boolean doubleLess(double a, double b) {
+        return a < b - EPSILON;
+    }
+
+    private boolean doubleGreater(double a, double b) {
+        return a > b + EPSILON;
+    }
+
+    private boolean doubleLessOrEquals(double a, double b) {
+        return a < b + EPSILON;
+    }
+
+    private boolean doubleGreaterOrEquals(double a, double b) {
+        return a > b - EPSILON;
+    }
+}
@@ -0,0 +1,261 @@
+package functions;
+
+import java.math.BigInteger;
+
+// Запись double в массив символов кратчайшей строкой, которая при чтении Double.parseDouble
+// даёт то же число (алгоритм Schubfach, Р. Джулиетти). Формат совпадает с Double.toString
+// начиная с JDK 19, где используется тот же алгоритм; Double.toString в JDK 17 иногда выдаёт
+// лишние цифры и заметно медленнее. Промежуточные строки и объекты не создаются
+final class DoubleToChars {
+    private DoubleToChars() {
+        throw new RuntimeException("Объекты этого класса нельзя создать");
+    }
+
+    // Наибольшая длина записи, например -2.2250738585072014E-308
+    static final int MAX_CHARS = 24;
+
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << (P - 1);
+    private static final int BQ_MASK = 0x7FF;
+    private static final long T_MASK = (1L << (P - 1)) - 1;
+    private static final long C_TINY = 3;
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final int H = 17;
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final int MASK_28 = (1 << 28) - 1;
+
+    private static final long[] POW10 = new long[H + 1];
+
+    // Для каждого k: 10^-k = β·2^r, 2^125 <= β < 2^126, g = floor(β) + 1 = G1·2^63 + G0
+    private static final long[] G1 = new long[K_MAX - K_MIN + 1];
+    private static final long[] G0 = new long[K_MAX - K_MIN + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i <= H; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+        BigInteger mask63 = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            BigInteger beta;
+            if (k <= 0) {
+                BigInteger n = BigInteger.TEN.pow(-k);
+                int r = n.bitLength() - 126;
+                beta = r >= 0 ? n.shiftRight(r) : n.shiftLeft(-r);
+            } else {
+                BigInteger d = BigInteger.TEN.pow(k);
+                beta = BigInteger.ONE.shiftLeft(125 + d.bitLength()).divide(d);
+            }
+            BigInteger g = beta.add(BigInteger.ONE);
+            G1[k - K_MIN] = g.shiftRight(63).longValue();
+            G0[k - K_MIN] = g.and(mask63).longValue();
+        }
+    }
+
+    // Записывает value в buffer начиная с position; возвращает позицию после записи.
+    // В буфере должно быть не меньше MAX_CHARS свободных символов
+    static int appendDouble(char[] buffer, int position, double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> (P - 1)) & BQ_MASK;
+        if (bq == BQ_MASK) {
+            return appendString(buffer, position, t != 0 ? "NaN" : bits > 0 ? "Infinity" : "-Infinity");
+        }
+        if (bits < 0) {
+            buffer[position++] = '-';
+        }
+        if (bq != 0) {
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+            // Целые значения до 2^53 записываются сразу
+            if (0 < mq && mq < P) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return toChars(buffer, position, f, 0);
+                }
+            }
+            return toDecimal(buffer, position, -mq, c, 0);
+        }
+        if (t != 0) {
+            // Денормализованные числа
+            return t < C_TINY
+                    ? toDecimal(buffer, position, Q_MIN, 10 * t, -1)
+                    : toDecimal(buffer, position, Q_MIN, t, 0);
+        }
+        return appendString(buffer, position, "0.0");
+    }
+
+    private static int appendString(char[] buffer, int position, String s) {
+        s.getChars(0, s.length(), buffer, position);
+        return position + s.length();
+    }
+
+    // Кратчайшее десятичное число из интервала округления c·2^q
+    private static int toDecimal(char[] buffer, int position, int q, long c, int dk) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN || q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+
+        long g1 = G1[k - K_MIN];
+        long g0 = G0[k - K_MIN];
+
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // Сначала пробуем число на одну цифру короче
+            long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return toChars(buffer, position, upin ? sp10 : tp10, k);
+            }
+        }
+
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return toChars(buffer, position, uin ? s : t, k + dk);
+        }
+        long cmp = vb - (s + t << 1);
+        return toChars(buffer, position, cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    // Запись f·10^e: обычная запись при 10^-3 <= значение < 10^7, иначе экспоненциальная
+    private static int toChars(char[] buffer, int position, long f, int e) {
+        int len = flog10pow2(Long.SIZE - Long.numberOfLeadingZeros(f));
+        if (f >= POW10[len]) {
+            len += 1;
+        }
+        // Теперь 10^(H-1) <= f < 10^H и значение равно 0.f·10^e
+        f *= POW10[H - len];
+        e += len;
+
+        // Старшая цифра h, следующие восемь m и младшие восемь l
+        long hm = Math.multiplyHigh(f, 193_428_131_138_340_668L) >>> 20;
+        int l = (int) (f - 100_000_000L * hm);
+        int h = (int) (hm * 1_441_151_881L >>> 57);
+        int m = (int) (hm - 100_000_000 * h);
+
+        if (0 < e && e <= 7) {
+            buffer[position++] = (char) ('0' + h);
+            int y = y(m);
+            int i = 1;
+            for (; i < e; i++) {
+                int d = 10 * y;
+                buffer[position++] = (char) ('0' + (d >>> 28));
+                y = d & MASK_28;
+            }
+            buffer[position++] = '.';
+            for (; i <= 8; i++) {
+                int d = 10 * y;
+                buffer[position++] = (char) ('0' + (d >>> 28));
+                y = d & MASK_28;
+            }
+            return lowDigits(buffer, position, l);
+        }
+        if (-3 < e && e <= 0) {
+            buffer[position++] = '0';
+            buffer[position++] = '.';
+            for (; e < 0; e++) {
+                buffer[position++] = '0';
+            }
+            buffer[position++] = (char) ('0' + h);
+            position = append8Digits(buffer, position, m);
+            return lowDigits(buffer, position, l);
+        }
+        buffer[position++] = (char) ('0' + h);
+        buffer[position++] = '.';
+        position = append8Digits(buffer, position, m);
+        position = lowDigits(buffer, position, l);
+        return exponent(buffer, position, e - 1);
+    }
+
+    // Младшие цифры и удаление конечных нулей, кроме нуля сразу после точки
+    private static int lowDigits(char[] buffer, int position, int l) {
+        if (l != 0) {
+            position = append8Digits(buffer, position, l);
+        }
+        while (buffer[position - 1] == '0') {
+            position--;
+        }
+        if (buffer[position - 1] == '.') {
+            position++;
+        }
+        return position;
+    }
+
+    // Восемь цифр слева направо без деления: y - дробь a / 10^8 с 28 битами после запятой
+    private static int append8Digits(char[] buffer, int position, int a) {
+        int y = y(a);
+        for (int i = 0; i < 8; i++) {
+            int d = 10 * y;
+            buffer[position++] = (char) ('0' + (d >>> 28));
+            y = d & MASK_28;
+        }
+        return position;
+    }
+
+    private static int y(int a) {
+        return (int) (Math.multiplyHigh((long) (a + 1) << 28, 193_428_131_138_340_668L) >>> 20) - 1;
+    }
+
+    private static int exponent(char[] buffer, int position, int e) {
+        buffer[position++] = 'E';
+        if (e < 0) {
+            buffer[position++] = '-';
+            e = -e;
+        }
+        if (e < 10) {
+            buffer[position++] = (char) ('0' + e);
+            return position;
+        }
+        int d;
+        if (e >= 100) {
+            d = e * 1_311 >>> 17;
+            buffer[position++] = (char) ('0' + d);
+            e -= 100 * d;
+        }
+        d = e * 103 >>> 10;
+        buffer[position++] = (char) ('0' + d);
+        buffer[position++] = (char) ('0' + e - 10 * d);
+        return position;
+    }
+}
@@ -32,6 +32,8 @@ public final class Functions {
     }
 
     public static double integrate(Function f, double leftX, double rightX, double step) {
+        IntegrationEvent event = new IntegrationEvent();
+        event.begin();
         if (leftX < f.getLeftDomainBorder() || rightX > f.getRightDomainBorder()) {
             throw new IllegalArgumentException("Интервал интегрирования за границами области определения");
         }
@@ -45,15 +47,25 @@ public final class Functions {
         double integral = 0.0;
         double x = leftX;
         double yPrevious = f.getFunctionValue(x);
+        long evaluations = 1;
 
         while (x < rightX) {
             double xNext = Math.min(x + step, rightX);
             double yNext = f.getFunctionValue(xNext);
+            evaluations++;
 
             integral += (yPrevious + yNext) * (xNext - x) / 2;
             x = xNext;
             yPrevious = yNext;
         }
+        if (event.shouldCommit()) {
+            event.functionClass = f.getClass();
+            event.leftX = leftX;
+            event.rightX = rightX;
+            event.step = step;
+            event.evaluations = evaluations;
+            event.commit();
+        }
         return integral;
 
     }
@@ -0,0 +1,163 @@
+package functions;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Декоратор, подсчитывающий обращения к любой табулированной функции.
+// Стоимость появляется только у обёрнутых объектов; сами реализации не меняются
+public class InstrumentedTabulatedFunction implements TabulatedFunction {
+    private static final long serialVersionUID = 5L;
+
+    private final TabulatedFunction function;
+    private final LongAdder functionValueCalls = new LongAdder();
+    private final LongAdder functionValueNanos = new LongAdder();
+    private final LongAdder pointReads = new LongAdder();
+    private final LongAdder pointWrites = new LongAdder();
+    private final LongAdder insertions = new LongAdder();
+    private final LongAdder deletions = new LongAdder();
+
+    public InstrumentedTabulatedFunction(TabulatedFunction function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        this.function = function;
+    }
+
+    public TabulatedFunction getFunction() {
+        return function;
+    }
+
+    public long getFunctionValueCalls() {
+        return functionValueCalls.sum();
+    }
+
+    public double getAverageFunctionValueNanos() {
+        long calls = functionValueCalls.sum();
+        return calls == 0 ? 0.0 : (double) functionValueNanos.sum() / calls;
+    }
+
+    public long getPointReads() {
+        return pointReads.sum();
+    }
+
+    public long getPointWrites() {
+        return pointWrites.sum();
+    }
+
+    public long getInsertions() {
+        return insertions.sum();
+    }
+
+    public long getDeletions() {
+        return deletions.sum();
+    }
+
+    public void resetCounters() {
+        functionValueCalls.reset();
+        functionValueNanos.reset();
+        pointReads.reset();
+        pointWrites.reset();
+        insertions.reset();
+        deletions.reset();
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        long start = System.nanoTime();
+        double value = function.getFunctionValue(x);
+        functionValueNanos.add(System.nanoTime() - start);
+        functionValueCalls.increment();
+        return value;
+    }
+
+    @Override
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        pointReads.increment();
+        return function.getPoint(index);
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        pointWrites.increment();
+        function.setPoint(index, point);
+    }
+
+    @Override
+    public double getPointX(int index) {
+        pointReads.increment();
+        return function.getPointX(index);
+    }
+
+    @Override
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        pointWrites.increment();
+        function.setPointX(index, x);
+    }
+
+    @Override
+    public double getPointY(int index) {
+        pointReads.increment();
+        return function.getPointY(index);
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        pointWrites.increment();
+        function.setPointY(index, y);
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        deletions.increment();
+        function.deletePoint(index);
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        insertions.increment();
+        function.addPoint(point);
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        return function.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return function.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof InstrumentedTabulatedFunction) {
+            return function.equals(((InstrumentedTabulatedFunction) o).function);
+        }
+        return function.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return function.hashCode();
+    }
+
+    @Override
+    public Object clone() {
+        return new InstrumentedTabulatedFunction((TabulatedFunction) function.clone());
+    }
+}
@@ -0,0 +1,28 @@
+package functions;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("functions.Integration")
+@Label("Integration")
+@Category("Functions")
+@Description("Численное интегрирование функции методом трапеций")
+class IntegrationEvent extends Event {
+    @Label("Function")
+    Class<?> functionClass;
+
+    @Label("Left X")
+    double leftX;
+
+    @Label("Right X")
+    double rightX;
+
+    @Label("Step")
+    double step;
+
+    @Label("Evaluations")
+    long evaluations;
+}
@@ -0,0 +1,361 @@
+package functions;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+// Декоратор табулированной функции с индексом для многократного решения уравнений f(x) = c.
+// Индекс делит точки на участки монотонности по y и хранит диапазоны [minY, maxY] участков
+// в дереве интервалов, так что запрос просматривает только участки, содержащие c, и на каждом
+// ищет решение двоичным поиском: O(log r + k·log n), где r - число участков, k - число найденных.
+// Для функции, пересекающей уровень c на каждом участке, k ≈ r и быстрее нельзя: столько же корней.
+// Индекс строится при первом запросе и сбрасывается любым изменяющим методом декоратора.
+// Декоратор хранит собственную копию функции, поэтому изменить точки в обход него нельзя
+public class InverseIndexedTabulatedFunction implements TabulatedFunction {
+    private static final long serialVersionUID = 8L;
+    private static final double EPSILON = 1e-9;
+
+    private final TabulatedFunction function;
+    private transient MonotoneRunIndex index;
+
+    // Декоратор работает с собственной копией функции: изменения переданного объекта
+    // на индекс не влияют и не могут сделать его устаревшим
+    public InverseIndexedTabulatedFunction(TabulatedFunction function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        this.function = (TabulatedFunction) function.clone();
+    }
+
+    private InverseIndexedTabulatedFunction(TabulatedFunction function, boolean owned) {
+        this.function = function;
+    }
+
+    private static class MonotoneRunIndex {
+        private final double[] xs;
+        private final double[] ys;
+        private final int[] runStarts;
+        private final int[] runEnds;
+        private final boolean[] runIncreasing;
+        private final int runsCount;
+        private final RunNode root;
+
+        MonotoneRunIndex(double[] xs, double[] ys) {
+            this.xs = xs;
+            this.ys = ys;
+            int n = xs.length;
+            int[] starts = new int[n];
+            int[] ends = new int[n];
+            boolean[] increasing = new boolean[n];
+            int count = 0;
+            int start = 0;
+            int direction = 0;
+            for (int i = 1; i < n; i++) {
+                int step = Double.compare(ys[i], ys[i - 1]);
+                if (direction == 0) {
+                    direction = step;
+                } else if (step != 0 && step != direction) {
+                    starts[count] = start;
+                    ends[count] = i - 1;
+                    increasing[count] = direction > 0;
+                    count++;
+                    start = i - 1;
+                    direction = step;
+                }
+            }
+            starts[count] = start;
+            ends[count] = n - 1;
+            increasing[count] = direction >= 0;
+            count++;
+
+            runStarts = Arrays.copyOf(starts, count);
+            runEnds = Arrays.copyOf(ends, count);
+            runIncreasing = Arrays.copyOf(increasing, count);
+            runsCount = count;
+
+            // Диапазоны расширены на EPSILON, чтобы дерево отвечало на запрос с той же точностью
+            double[] lows = new double[count];
+            double[] highs = new double[count];
+            int[] runs = new int[count];
+            for (int r = 0; r < count; r++) {
+                double first = ys[runStarts[r]];
+                double last = ys[runEnds[r]];
+                lows[r] = Math.min(first, last) - EPSILON;
+                highs[r] = Math.max(first, last) + EPSILON;
+                runs[r] = r;
+            }
+            root = RunNode.build(runs, count, lows, highs);
+        }
+
+        double[] solve(double c) {
+            int[] matches = new int[8];
+            int matchesCount = root == null ? 0 : root.stab(c, matches, 0);
+            if (matchesCount > matches.length) {
+                matches = new int[matchesCount];
+                root.stab(c, matches, 0);
+            }
+            // Участки идут по возрастанию x, поэтому корни получаются упорядоченными
+            Arrays.sort(matches, 0, matchesCount);
+
+            double[] roots = new double[8];
+            int count = 0;
+            for (int m = 0; m < matchesCount; m++) {
+                int r = matches[m];
+                int start = runStarts[r];
+                int end = runEnds[r];
+                boolean increasing = runIncreasing[r];
+
+                // Первая точка участка, достигшая уровня c
+                int left = start;
+                int right = end;
+                while (left < right) {
+                    int middle = (left + right) >>> 1;
+                    boolean reached = increasing ? ys[middle] >= c - EPSILON : ys[middle] <= c + EPSILON;
+                    if (reached) {
+                        right = middle;
+                    } else {
+                        left = middle + 1;
+                    }
+                }
+
+                int k = left;
+                if (Math.abs(ys[k] - c) < EPSILON) {
+                    // Все узлы горизонтального участка на уровне c
+                    while (k <= end && Math.abs(ys[k] - c) < EPSILON) {
+                        if (count == 0 || xs[k] - roots[count - 1] > EPSILON) {
+                            if (count == roots.length) {
+                                roots = Arrays.copyOf(roots, count * 2);
+                            }
+                            roots[count++] = xs[k];
+                        }
+                        k++;
+                    }
+                } else if (k > start) {
+                    double d_1 = ys[k - 1] - c;
+                    double d_2 = ys[k] - c;
+                    double x = xs[k - 1] + d_1 / (d_1 - d_2) * (xs[k] - xs[k - 1]);
+                    if (count == 0 || x - roots[count - 1] > EPSILON) {
+                        if (count == roots.length) {
+                            roots = Arrays.copyOf(roots, count * 2);
+                        }
+                        roots[count++] = x;
+                    }
+                }
+            }
+            return Arrays.copyOf(roots, count);
+        }
+    }
+
+    // Узел дерева интервалов: участки, содержащие center, упорядочены по нижней границе
+    // по возрастанию и по верхней по убыванию; участки целиком левее и правее center - в поддеревьях
+    private static class RunNode {
+        private final double center;
+        private final int[] byLow;
+        private final double[] lowsSorted;
+        private final int[] byHigh;
+        private final double[] highsSorted;
+        private final RunNode left;
+        private final RunNode right;
+
+        private RunNode(double center, int[] byLow, double[] lowsSorted, int[] byHigh, double[] highsSorted,
+                        RunNode left, RunNode right) {
+            this.center = center;
+            this.byLow = byLow;
+            this.lowsSorted = lowsSorted;
+            this.byHigh = byHigh;
+            this.highsSorted = highsSorted;
+            this.left = left;
+            this.right = right;
+        }
+
+        static RunNode build(int[] runs, int count, double[] lows, double[] highs) {
+            if (count == 0) {
+                return null;
+            }
+            double[] endpoints = new double[count * 2];
+            for (int i = 0; i < count; i++) {
+                endpoints[2 * i] = lows[runs[i]];
+                endpoints[2 * i + 1] = highs[runs[i]];
+            }
+            Arrays.sort(endpoints);
+            double center = endpoints[count];
+
+            int[] leftRuns = new int[count];
+            int[] rightRuns = new int[count];
+            int[] here = new int[count];
+            int leftCount = 0;
+            int rightCount = 0;
+            int hereCount = 0;
+            for (int i = 0; i < count; i++) {
+                int r = runs[i];
+                if (highs[r] < center) {
+                    leftRuns[leftCount++] = r;
+                } else if (lows[r] > center) {
+                    rightRuns[rightCount++] = r;
+                } else {
+                    here[hereCount++] = r;
+                }
+            }
+
+            int[] byLow = sortBy(here, hereCount, lows, true);
+            int[] byHigh = sortBy(here, hereCount, highs, false);
+            double[] lowsSorted = new double[hereCount];
+            double[] highsSorted = new double[hereCount];
+            for (int i = 0; i < hereCount; i++) {
+                lowsSorted[i] = lows[byLow[i]];
+                highsSorted[i] = highs[byHigh[i]];
+            }
+            return new RunNode(center, byLow, lowsSorted, byHigh, highsSorted,
+                    build(leftRuns, leftCount, lows, highs), build(rightRuns, rightCount, lows, highs));
+        }
+
+        // Номера участков из here, упорядоченные по keys по возрастанию или убыванию
+        private static int[] sortBy(int[] here, int count, double[] keys, boolean ascending) {
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = here[i];
+            }
+            Arrays.sort(order, (a, b) -> ascending ? Double.compare(keys[a], keys[b]) : Double.compare(keys[b], keys[a]));
+            int[] result = new int[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = order[i];
+            }
+            return result;
+        }
+
+        // Участки, содержащие c, дописываются в matches начиная с count; возвращается новое количество.
+        // Если matches мал, участки только подсчитываются
+        int stab(double c, int[] matches, int count) {
+            RunNode node = this;
+            while (node != null) {
+                if (c < node.center) {
+                    for (int i = 0; i < node.byLow.length && node.lowsSorted[i] <= c; i++) {
+                        count = add(matches, count, node.byLow[i]);
+                    }
+                    node = node.left;
+                } else {
+                    for (int i = 0; i < node.byHigh.length && node.highsSorted[i] >= c; i++) {
+                        count = add(matches, count, node.byHigh[i]);
+                    }
+                    node = node.right;
+                }
+            }
+            return count;
+        }
+
+        private static int add(int[] matches, int count, int run) {
+            if (count < matches.length) {
+                matches[count] = run;
+            }
+            return count + 1;
+        }
+    }
+
+    // Копия текущих точек; собственная функция наружу не отдаётся
+    public TabulatedFunction getFunction() {
+        return (TabulatedFunction) function.clone();
+    }
+
+    // Все x, для которых f(x) = c, в порядке возрастания
+    public double[] solve(double c) {
+        MonotoneRunIndex current = index;
+        if (current == null) {
+            double[][] arrays = TabulatedOperations.toArrays(function);
+            current = new MonotoneRunIndex(arrays[0], arrays[1]);
+            index = current;
+        }
+        return current.solve(c);
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        return function.getFunctionValue(x);
+    }
+
+    @Override
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        return function.getPoint(index);
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        this.index = null;
+        function.setPoint(index, point);
+    }
+
+    @Override
+    public double getPointX(int index) {
+        return function.getPointX(index);
+    }
+
+    @Override
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        this.index = null;
+        function.setPointX(index, x);
+    }
+
+    @Override
+    public double getPointY(int index) {
+        return function.getPointY(index);
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        this.index = null;
+        function.setPointY(index, y);
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        this.index = null;
+        function.deletePoint(index);
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        this.index = null;
+        function.addPoint(point);
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        return function.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return function.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof InverseIndexedTabulatedFunction) {
+            return function.equals(((InverseIndexedTabulatedFunction) o).function);
+        }
+        return function.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return function.hashCode();
+    }
+
+    @Override
+    public Object clone() {
+        return new InverseIndexedTabulatedFunction((TabulatedFunction) function.clone(), true);
+    }
+}
@@ -0,0 +1,451 @@
+package functions;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Табулированная функция, вычисляющая значения исходной функции на равномерной сетке по требованию.
+// Ординаты считаются блоками по CHUNK_SIZE точек при первом обращении к блоку и сохраняются
+// в массиве; каждый блок вычисляется ровно один раз, в том числе при одновременном чтении из
+// нескольких потоков: поток, заставший блок в процессе вычисления, блокируется на мониторе блока,
+// а не крутится в цикле. Изменение абсцисс, вставка и удаление точек сначала вычисляют все блоки
+// и переводят функцию в обычный режим с явным массивом абсцисс
+public class LazyTabulatedFunction implements TabulatedFunction, Serializable {
+    private static final long serialVersionUID = 10L;
+
+    private static final int CHUNK_SIZE = 1024;
+    private static final int READY = 1;
+    private static final double EPSILON = 1e-9;
+
+    // Состояние ленивого режима; после материализации - null. Единственная volatile-запись null
+    // публикует уже заполненные xValues и yValues, поэтому читатели сначала проверяют это поле
+    private transient volatile Grid grid;
+    private transient int pointsCount;
+    private transient double[] xValues;
+    private transient double[] yValues;
+
+    private static final class Grid {
+        final Function source;
+        final double leftX;
+        final double distance;
+        final double[] yValues;
+        final AtomicIntegerArray chunkStates;
+        final Object[] chunkLocks;
+
+        Grid(Function source, double leftX, double distance, int pointsCount) {
+            this.source = source;
+            this.leftX = leftX;
+            this.distance = distance;
+            this.yValues = new double[pointsCount];
+            int chunks = (pointsCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            this.chunkStates = new AtomicIntegerArray(chunks);
+            this.chunkLocks = new Object[chunks];
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                chunkLocks[chunk] = new Object();
+            }
+        }
+
+        double x(int index) {
+            return leftX + index * distance;
+        }
+
+        // Первый поток, захвативший монитор блока, вычисляет его; остальные ждут на мониторе.
+        // Запись READY публикует вычисленные значения для потоков, проверяющих её без блокировки.
+        // Если вычисление бросило исключение, блок остаётся невычисленным и его вычислит следующий поток
+        void ensureChunk(int chunk, int pointsCount) {
+            if (chunkStates.get(chunk) == READY) {
+                return;
+            }
+            synchronized (chunkLocks[chunk]) {
+                if (chunkStates.get(chunk) != READY) {
+                    int from = chunk * CHUNK_SIZE;
+                    int to = Math.min(from + CHUNK_SIZE, pointsCount);
+                    for (int i = from; i < to; i++) {
+                        yValues[i] = source.getFunctionValue(x(i));
+                    }
+                    chunkStates.set(chunk, READY);
+                }
+            }
+        }
+    }
+
+    public LazyTabulatedFunction(Function source, double leftX, double rightX, int pointsCount) {
+        if (source == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        if (leftX < source.getLeftDomainBorder() || rightX > source.getRightDomainBorder()) {
+            throw new IllegalArgumentException("Границы выходят за область определения");
+        }
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница области определения должна быть меньше правой");
+        }
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >=2");
+        }
+
+        this.pointsCount = pointsCount;
+        this.grid = new Grid(source, leftX, (rightX - leftX) / (pointsCount - 1), pointsCount);
+    }
+
+    private LazyTabulatedFunction() {
+    }
+
+    // Количество точек, значения которых уже вычислены
+    public int getComputedPointsCount() {
+        Grid current = grid;
+        if (current == null) {
+            return pointsCount;
+        }
+        int count = 0;
+        for (int chunk = 0; chunk < current.chunkStates.length(); chunk++) {
+            if (current.chunkStates.get(chunk) == READY) {
+                count += Math.min(CHUNK_SIZE, pointsCount - chunk * CHUNK_SIZE);
+            }
+        }
+        return count;
+    }
+
+    private double y(int index) {
+        Grid current = grid;
+        if (current != null) {
+            current.ensureChunk(index / CHUNK_SIZE, pointsCount);
+            return current.yValues[index];
+        }
+        return yValues[index];
+    }
+
+    private double x(int index) {
+        Grid current = grid;
+        return current != null ? current.x(index) : xValues[index];
+    }
+
+    // Вычисляет все оставшиеся блоки и переходит к явному массиву абсцисс
+    private void materialize() {
+        Grid current = grid;
+        if (current == null) {
+            return;
+        }
+        double[] xs = new double[pointsCount + 2];
+        double[] ys = new double[pointsCount + 2];
+        for (int i = 0; i < pointsCount; i++) {
+            current.ensureChunk(i / CHUNK_SIZE, pointsCount);
+            xs[i] = current.x(i);
+            ys[i] = current.yValues[i];
+        }
+        xValues = xs;
+        yValues = ys;
+        grid = null;
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return x(0);
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return x(pointsCount - 1);
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        if (doubleLess(x, getLeftDomainBorder()) || doubleGreater(x, getRightDomainBorder())) {
+            return Double.NaN;
+        }
+
+        Grid current = grid;
+        int low;
+        if (current == null) {
+            low = 0;
+            int high = pointsCount - 1;
+            while (high - low > 1) {
+                int middle = (low + high) >>> 1;
+                if (xValues[middle] <= x) {
+                    low = middle;
+                } else {
+                    high = middle;
+                }
+            }
+        } else {
+            // На равномерной сетке отрезок находится арифметически
+            low = (int) Math.floor((x - current.leftX) / current.distance);
+            low = Math.max(0, Math.min(pointsCount - 2, low));
+        }
+
+        double x_1 = x(low);
+        double x_2 = x(low + 1);
+        if (doubleEquals(x, x_1)) {
+            return y(low);
+        }
+        if (doubleEquals(x, x_2)) {
+            return y(low + 1);
+        }
+        double y_1 = y(low);
+        double y_2 = y(low + 1);
+        return (x - x_1) * (y_2 - y_1) / (x_2 - x_1) + y_1;
+    }
+
+    @Override
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        return new FunctionPoint(x(index), y(index));
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        if (point == null) {
+            throw new IllegalArgumentException("Точка без значения");
+        }
+        checkIndex(index);
+        checkNewX(index, point.getX());
+        materialize();
+        xValues[index] = point.getX();
+        yValues[index] = point.getY();
+    }
+
+    @Override
+    public double getPointX(int index) {
+        checkIndex(index);
+        return x(index);
+    }
+
+    @Override
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        checkNewX(index, x);
+        materialize();
+        xValues[index] = x;
+    }
+
+    @Override
+    public double getPointY(int index) {
+        checkIndex(index);
+        return y(index);
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        checkIndex(index);
+        Grid current = grid;
+        if (current != null) {
+            current.ensureChunk(index / CHUNK_SIZE, pointsCount);
+            current.yValues[index] = y;
+        } else {
+            yValues[index] = y;
+        }
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        if (pointsCount <= 2) {
+            throw new IllegalStateException("Минимальное количество точек: 2");
+        }
+        checkIndex(index);
+        materialize();
+
+        System.arraycopy(xValues, index + 1, xValues, index, pointsCount - index - 1);
+        System.arraycopy(yValues, index + 1, yValues, index, pointsCount - index - 1);
+        pointsCount--;
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        if (point == null) {
+            throw new IllegalArgumentException("Точка не может быть null");
+        }
+        int newIndex = 0;
+        while (newIndex < pointsCount && doubleLess(x(newIndex), point.getX())) {
+            newIndex++;
+        }
+        if (newIndex < pointsCount && doubleEquals(x(newIndex), point.getX())) {
+            throw new InappropriateFunctionPointException("Такая точка уже существует");
+        }
+        materialize();
+        if (pointsCount == xValues.length) {
+            increaseArraySize();
+        }
+
+        System.arraycopy(xValues, newIndex, xValues, newIndex + 1, pointsCount - newIndex);
+        System.arraycopy(yValues, newIndex, yValues, newIndex + 1, pointsCount - newIndex);
+        xValues[newIndex] = point.getX();
+        yValues[newIndex] = point.getY();
+        pointsCount++;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        str.append("{");
+        for (int i = 0; i < pointsCount; i++) {
+            str.append("(").append(x(i)).append("; ").append(y(i)).append(")");
+            if (i < pointsCount - 1) {
+                str.append(",");
+            }
+        }
+        str.append("}");
+        return str.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TabulatedFunction)) {
+            return false;
+        }
+
+        TabulatedFunction newFunc = (TabulatedFunction) o;
+        if (pointsCount != newFunc.getPointsCount()) {
+            return false;
+        }
+        for (int i = 0; i < pointsCount; i++) {
+            if (!doubleEquals(x(i), newFunc.getPointX(i))) {
+                return false;
+            }
+            if (!doubleEquals(y(i), newFunc.getPointY(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = pointsCount; // Включаем количество точек в хэш
+        for (int i = 0; i < pointsCount; i++) {
+            hash ^= Double.hashCode(x(i)) ^ Double.hashCode(y(i));
+        }
+        return hash;
+    }
+
+    // Клон получает уже вычисленные блоки; остальные он вычислит сам при обращении
+    @Override
+    public Object clone() {
+        LazyTabulatedFunction cloned = new LazyTabulatedFunction();
+        cloned.pointsCount = pointsCount;
+        Grid current = grid;
+        if (current == null) {
+            cloned.xValues = xValues.clone();
+            cloned.yValues = yValues.clone();
+        } else {
+            Grid copy = new Grid(current.source, current.leftX, current.distance, pointsCount);
+            for (int chunk = 0; chunk < current.chunkStates.length(); chunk++) {
+                if (current.chunkStates.get(chunk) == READY) {
+                    int from = chunk * CHUNK_SIZE;
+                    System.arraycopy(current.yValues, from, copy.yValues, from, Math.min(CHUNK_SIZE, pointsCount - from));
+                    copy.chunkStates.set(chunk, READY);
+                }
+            }
+            cloned.grid = copy;
+        }
+        return cloned;
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        return new Iterator<FunctionPoint>() {
+            private int currentIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < pointsCount;
+            }
+
+            @Override
+            public FunctionPoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("В табулированной функции кончились точки");
+                }
+                FunctionPoint point = new FunctionPoint(x(currentIndex), y(currentIndex));
+                currentIndex++;
+                return point;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Операция удаления не поддерживается");
+            }
+        };
+    }
+
+    // Исходная функция не сериализуется, поэтому в поток пишутся все вычисленные точки
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(pointsCount);
+        for (int i = 0; i < pointsCount; i++) {
+            out.writeDouble(x(i));
+            out.writeDouble(y(i));
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count < 2) {
+            throw new InvalidObjectException("Некорректное количество точек: " + count);
+        }
+        pointsCount = count;
+        xValues = new double[count + 2];
+        yValues = new double[count + 2];
+        for (int i = 0; i < count; i++) {
+            xValues[i] = in.readDouble();
+            yValues[i] = in.readDouble();
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
+        }
+    }
+
+    private void checkNewX(int index, double x) throws InappropriateFunctionPointException {
+        if (index > 0 && doubleLessOrEquals(x, x(index - 1))) {
+            throw new InappropriateFunctionPointException("Новая точка должна быть больше предыдущей по x");
+        }
+        if (index < pointsCount - 1 && doubleGreaterOrEquals(x, x(index + 1))) {
+            throw new InappropriateFunctionPointException("Новая точка должна быть меньше следующей по x");
+        }
+    }
+
+    private void increaseArraySize() {
+        int capacity = xValues.length * 2 + 2;
+        double[] newX = new double[capacity];
+        double[] newY = new double[capacity];
+        System.arraycopy(xValues, 0, newX, 0, pointsCount);
+        System.arraycopy(yValues, 0, newY, 0, pointsCount);
+        xValues = newX;
+        yValues = newY;
+    }
+
+    private boolean doubleEquals(double a, double b) {
+        return Math.abs(a - b) < EPSILON;
+    }
+
+    private boolean doubleLess(double a, double b) {
+        return a < b - EPSILON;
+    }
+
+    private boolean doubleGreater(double a, double b) {
+        return a > b + EPSILON;
+    }
+
+    private boolean doubleLessOrEquals(double a, double b) {
+        return a < b + EPSILON;
+    }
+
+    private boolean doubleGreaterOrEquals(double a, double b) {
+        return a > b - EPSILON;
+    }
+}
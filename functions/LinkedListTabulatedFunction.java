@@ -1,14 +1,18 @@
 package functions;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class LinkedListTabulatedFunction implements TabulatedFunction, Serializable {
-    private static final long serialVersionUID = 3L;
+    private static final long serialVersionUID = 17L;
 
-    private class FunctionNode implements Serializable {
-        private static final long serialVersionUID = 4L;
+    private class FunctionNode {
         private FunctionPoint point;
         private FunctionNode previous;
         private FunctionNode next;
@@ -50,11 +54,34 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         }
     }
 
-    private FunctionNode head;
-    private int pointsCount;
-    private FunctionNode lastAccessNode;
-    private  int lastAccessIndex;
+    // Позиция последнего обращения. Узел и индекс хранятся в одном неизменяемом объекте,
+    // поэтому параллельные читатели без блокировок всегда видят согласованную пару:
+    // в худшем случае чужой курсор, но не узел от одного обращения и индекс от другого
+    private static class AccessCursor {
+        private final FunctionNode node;
+        private final int index;
+
+        AccessCursor(FunctionNode node, int index) {
+            this.node = node;
+            this.index = index;
+        }
+    }
+
+    // Список не сериализуется рекурсивно: writeObject/readObject пишут количество точек и пары координат
+    private transient FunctionNode head;
+    private transient int pointsCount;
+    private transient AccessCursor lastAccess;
+    // XOR хэшей всех точек; поддерживается при каждом изменении, поэтому hashCode() работает за O(1)
+    private transient int pointsHash;
+    // Цепочка узлов разделяется с клонами до первой записи (копирование при записи); owners -
+    // общий для всех владельцев цепочки счётчик. Пишущий владелец при нескольких владельцах
+    // копирует цепочку и уменьшает счётчик, единственный владелец пишет на месте. Узлы связаны
+    // с обоими соседями, поэтому скопировать часть цепочки нельзя: копия всегда целиком.
+    // Точки в узлах не изменяются на месте, поэтому при записи копируются только узлы
+    private transient AtomicInteger owners;
     private  static double EPSILON = 1e-9;
+    // Размер блока координат при сравнении с массивом
+    private static final int COMPARE_BLOCK = 256;
 
     public LinkedListTabulatedFunction() {
         emptyList();
@@ -73,7 +100,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
 
         for (int i = 0; i < pointsCount; i++){
             double x = leftX + i * distance;
-            addNodeToTail().setPoint(new FunctionPoint(x, 0.0));
+            setNodePoint(addNodeToTail(), new FunctionPoint(x, 0.0));
         }
     }
 
@@ -90,7 +117,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
 
         for (int i = 0; i < values.length; i++){
             double x = leftX + i * distance;
-            addNodeToTail().setPoint(new FunctionPoint(x, values[i]));
+            setNodePoint(addNodeToTail(), new FunctionPoint(x, values[i]));
         }
     }
 
@@ -109,7 +136,33 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         emptyList();
 
         for (FunctionPoint point : points) {
-            addNodeToTail().setPoint(new FunctionPoint(point));
+            setNodePoint(addNodeToTail(), new FunctionPoint(point));
+        }
+    }
+
+    public LinkedListTabulatedFunction(double[] xValues, double[] yValues) {
+        this(xValues, yValues, false);
+    }
+
+    // trusted: массивы уже проверены вызывающим кодом, проверки пропускаются
+    private LinkedListTabulatedFunction(double[] xValues, double[] yValues, boolean trusted) {
+        if (!trusted) {
+            if (xValues.length != yValues.length) {
+                throw new IllegalArgumentException("Массивы абсцисс и ординат должны быть одной длины");
+            }
+            if (xValues.length < 2) {
+                throw new IllegalArgumentException("Количество точек должно быть >= 2");
+            }
+            for (int i = 1; i < xValues.length; i++) {
+                if (doubleLessOrEquals(xValues[i], xValues[i - 1])) {
+                    throw new IllegalArgumentException("Точки должны возрастать по абсциссе");
+                }
+            }
+        }
+        emptyList();
+
+        for (int i = 0; i < xValues.length; i++) {
+            setNodePoint(addNodeToTail(), new FunctionPoint(xValues[i], yValues[i]));
         }
     }
 
@@ -128,6 +181,16 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         public TabulatedFunction createTabulatedFunction(FunctionPoint[] points){
             return new LinkedListTabulatedFunction(points);
         }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double[] xValues, double[] yValues) {
+            return new LinkedListTabulatedFunction(xValues, yValues);
+        }
+
+        @Override
+        public TabulatedFunction createTrustedTabulatedFunction(double[] xValues, double[] yValues) {
+            return new LinkedListTabulatedFunction(xValues, yValues, true);
+        }
     }
     
 
@@ -136,8 +199,31 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         head.setPrevious(head);
         head.setNext(head);
         pointsCount = 0;
-        lastAccessNode = head;
-        lastAccessIndex = -1;
+        pointsHash = 0;
+        lastAccess = new AccessCursor(head, -1);
+        owners = new AtomicInteger(1);
+    }
+
+    // Координаты точек с номерами from..from + count - 1 записываются в xs и ys с нулевой позиции
+    // за один проход по узлам; курсор остаётся на последней точке, так что следующий блок
+    // продолжает обход без поиска
+    void copyTo(double[] xs, double[] ys, int from, int count) {
+        if (from < 0 || count < 0 || from + count > pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Диапазон " + from + ".." + (from + count - 1) + " не входит в диапазон");
+        }
+        if (count == 0) {
+            return;
+        }
+        FunctionNode node = getNodeByIndex(from);
+        for (int i = 0; ; i++) {
+            xs[i] = node.getPoint().getX();
+            ys[i] = node.getPoint().getY();
+            if (i == count - 1) {
+                break;
+            }
+            node = node.getNext();
+        }
+        lastAccess = new AccessCursor(node, from + count - 1);
     }
 
     private FunctionNode getNodeByIndex(int index) {
@@ -145,20 +231,34 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
         }
 
-        if (lastAccessIndex == index && lastAccessNode != head) {
-            return lastAccessNode;
+        AccessCursor cursor = lastAccess;
+        if (cursor.index == index && cursor.node != head) {
+            if (TabulatedFunctionMetrics.ENABLED) {
+                TabulatedFunctionMetrics.recordCacheHit();
+            }
+            return cursor.node;
         }
 
-        if (lastAccessIndex != -1 && lastAccessIndex == index - 1) {
-            lastAccessNode = lastAccessNode.getNext();
-            lastAccessIndex = index;
-            return lastAccessNode;
+        if (cursor.index != -1 && cursor.index == index - 1) {
+            if (TabulatedFunctionMetrics.ENABLED) {
+                TabulatedFunctionMetrics.recordCacheHit();
+            }
+            FunctionNode node = cursor.node.getNext();
+            lastAccess = new AccessCursor(node, index);
+            return node;
         }
 
-        if (lastAccessIndex != -1 && lastAccessIndex == index + 1) {
-            lastAccessNode = lastAccessNode.getPrevious();
-            lastAccessIndex = index;
-            return lastAccessNode;
+        if (cursor.index != -1 && cursor.index == index + 1) {
+            if (TabulatedFunctionMetrics.ENABLED) {
+                TabulatedFunctionMetrics.recordCacheHit();
+            }
+            FunctionNode node = cursor.node.getPrevious();
+            lastAccess = new AccessCursor(node, index);
+            return node;
+        }
+
+        if (TabulatedFunctionMetrics.ENABLED) {
+            TabulatedFunctionMetrics.recordCacheMiss();
         }
 
         FunctionNode current;
@@ -173,8 +273,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
                 current = current.getPrevious();
             }
         }
-        lastAccessNode = current;
-        lastAccessIndex = index;
+        lastAccess = new AccessCursor(current, index);
         return current;
     }
 
@@ -184,8 +283,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         head.setPrevious(newNode);
         pointsCount++;
 
-        lastAccessNode = newNode;
-        lastAccessIndex = pointsCount - 1;
+        lastAccess = new AccessCursor(newNode, pointsCount - 1);
         return newNode;
 
     }
@@ -204,11 +302,18 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         nodeWithIndex.getPrevious().setNext(newNode);
         nodeWithIndex.setPrevious(newNode);
         pointsCount++;
-        lastAccessIndex = index;
-        lastAccessNode = newNode;
+        lastAccess = new AccessCursor(newNode, index);
         return newNode;
     }
 
+    private void setNodePoint(FunctionNode node, FunctionPoint point) {
+        if (node.getPoint() != null) {
+            pointsHash ^= node.getPoint().hashCode();
+        }
+        pointsHash ^= point.hashCode();
+        node.setPoint(point);
+    }
+
     private FunctionNode deleteNodeByIndex(int index) {
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
@@ -219,12 +324,13 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         deletedNode.getPrevious().setNext(deletedNode.getNext());
         deletedNode.getNext().setPrevious(deletedNode.getPrevious());
         pointsCount--;
+        pointsHash ^= deletedNode.getPoint().hashCode();
 
-        if (lastAccessIndex == index) {
-            lastAccessNode = head;
-            lastAccessIndex = -1;
-        } else if (lastAccessIndex > index) {
-            lastAccessIndex--;
+        AccessCursor cursor = lastAccess;
+        if (cursor.index == index) {
+            lastAccess = new AccessCursor(head, -1);
+        } else if (cursor.index > index) {
+            lastAccess = new AccessCursor(cursor.node, cursor.index - 1);
         }
 
         return deletedNode;
@@ -256,37 +362,60 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             return Double.NaN;
         }
 
+        // Курсор читается один раз; индекс узла отслеживается по ходу обхода
+        AccessCursor cursor = lastAccess;
         FunctionNode current;
-        if (lastAccessNode != head && doubleGreaterOrEquals(x, lastAccessNode.getPoint().getX())) {
-            current = lastAccessNode;
+        int index;
+        boolean cacheHit = cursor.node != head && doubleGreaterOrEquals(x, cursor.node.getPoint().getX());
+        if (cacheHit) {
+            current = cursor.node;
+            index = cursor.index;
         } else {
             current = head.getNext();
+            index = 0;
         }
+        // Курсор на последней точке (так после конструктора): цикл берёт пары соседних узлов,
+        // поэтому начинаем с предыдущего, иначе он не выполнится ни разу
+        if (current.getNext() == head && current.getPrevious() != head) {
+            current = current.getPrevious();
+            index--;
+        }
+        int scanned = 0;
 
         while (current != head && current.getNext() != head) {
             double x_1 = current.getPoint().getX();
             double x_2 = current.getNext().getPoint().getX();
+            scanned++;
 
             if (doubleEquals(x, x_1)){
-                lastAccessNode = current;
-                lastAccessIndex = getNodeIndex(current);
+                if (TabulatedFunctionMetrics.ENABLED) {
+                    recordLookup(scanned, cacheHit);
+                }
+                lastAccess = new AccessCursor(current, index);
                 return current.getPoint().getY();
             }
 
             if (doubleEquals(x, x_2)){
-                lastAccessNode = current.getNext();
-                lastAccessIndex = getNodeIndex(current.getNext());           
+                if (TabulatedFunctionMetrics.ENABLED) {
+                    recordLookup(scanned, cacheHit);
+                }
+                lastAccess = new AccessCursor(current.getNext(), index + 1);
                 return current.getNext().getPoint().getY();
             }
 
             if (doubleGreater(x, x_1) && doubleLess(x, x_2)){
+                if (TabulatedFunctionMetrics.ENABLED) {
+                    recordLookup(scanned, cacheHit);
+                }
                 double y_1 = current.getPoint().getY();
                 double y_2 = current.getNext().getPoint().getY();
 
+                lastAccess = new AccessCursor(current, index);
                 return (x - x_1) * (y_2 - y_1) / (x_2 - x_1) + y_1;
             }
 
-            current = current.getNext();                                     
+            current = current.getNext();
+            index++;
         }
         return Double.NaN;
     }
@@ -310,6 +439,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         if (point == null) {
             throw new IllegalArgumentException("Точка без значения");
         }
+        ensureOwnList();
 
         FunctionNode node = getNodeByIndex(index);
         
@@ -323,7 +453,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             throw new InappropriateFunctionPointException("Новая точка должна быть меньше следующей по x");
         }
         
-        node.setPoint(new FunctionPoint(point));
+        setNodePoint(node, new FunctionPoint(point));
     }
     
     @Override
@@ -339,6 +469,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
         }
+        ensureOwnList();
 
         FunctionNode node = getNodeByIndex(index);
         FunctionPoint currentPoint = node.getPoint();
@@ -350,7 +481,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             throw new InappropriateFunctionPointException("Новая точка должна быть меньше следующей по x"); 
         }
         
-        node.setPoint(new FunctionPoint(x, currentPoint.getY()));
+        setNodePoint(node, new FunctionPoint(x, currentPoint.getY()));
     }
 
     @Override
@@ -366,10 +497,11 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         if (index < 0 || index >= pointsCount){
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
         }
+        ensureOwnList();
 
         FunctionNode node = getNodeByIndex(index);
         FunctionPoint currentPoint = node.getPoint();
-        node.setPoint(new FunctionPoint(currentPoint.getX(), y));
+        setNodePoint(node, new FunctionPoint(currentPoint.getX(), y));
     }
 
     @Override
@@ -380,6 +512,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         if (index < 0 || index >= pointsCount) {
             throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
         }
+        ensureOwnList();
 
         deleteNodeByIndex(index);
     }
@@ -389,6 +522,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         if (point == null) {
             throw new IllegalArgumentException("Точка без значения");
         }
+        ensureOwnList();
 
         FunctionNode current = head.getNext();
         int newIndex = 0;
@@ -402,7 +536,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
 
         }
         FunctionNode newNode = addNodeByIndex(newIndex);
-        newNode.setPoint(new FunctionPoint(point));
+        setNodePoint(newNode, new FunctionPoint(point));
     }
 
     @Override
@@ -434,6 +568,12 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         if (this.getPointsCount() != newFunc.getPointsCount()) {
             return false;
         }
+        // Быстрый отказ по границам области определения: они доступны за O(1) в любой реализации.
+        // Хэш для отказа не годится: точки сравниваются с допуском EPSILON, а хэш точный
+        if (pointsCount > 0 && (!doubleEquals(getLeftDomainBorder(), newFunc.getLeftDomainBorder())
+                || !doubleEquals(getRightDomainBorder(), newFunc.getRightDomainBorder()))) {
+            return false;
+        }
         if (o instanceof LinkedListTabulatedFunction) {
             LinkedListTabulatedFunction newList = (LinkedListTabulatedFunction) o;
             FunctionNode thisNode = head.getNext();
@@ -450,16 +590,38 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
             }
             return true;
             
+        } else if (o instanceof ArrayTabulatedFunction) {
+            // Координаты массива копируются блоками, свои узлы обходятся напрямую
+            ArrayTabulatedFunction newArrayFunc = (ArrayTabulatedFunction) o;
+            double[] xs = new double[Math.min(pointsCount, COMPARE_BLOCK)];
+            double[] ys = new double[xs.length];
+            FunctionNode thisNode = head.getNext();
+            for (int from = 0; from < pointsCount; from += xs.length) {
+                int count = Math.min(xs.length, pointsCount - from);
+                newArrayFunc.copyTo(xs, ys, from, count);
+                for (int i = 0; i < count; i++) {
+                    if (!doubleEquals(thisNode.getPoint().getX(), xs[i])){
+                        return false;
+                    }
+                    if (!doubleEquals(thisNode.getPoint().getY(), ys[i])) {
+                        return false;
+                    }
+                    thisNode = thisNode.getNext();
+                }
+            }
         } else {
-            for (int i = 0; i < getPointsCount(); i++) {
-                FunctionPoint thisPoint = this.getPoint(i);
-                FunctionPoint newPoint = newFunc.getPoint(i);
-                if (!doubleEquals(thisPoint.getX(), newPoint.getX())){
+            // Свои узлы и итератор другой функции обходятся за один проход
+            FunctionNode thisNode = head.getNext();
+            Iterator<FunctionPoint> iterator = newFunc.iterator();
+            for (int i = 0; i < pointsCount; i++) {
+                FunctionPoint point = iterator.next();
+                if (!doubleEquals(thisNode.getPoint().getX(), point.getX())){
                     return false;
                 }
-                if (!doubleEquals(thisPoint.getY(), newPoint.getY())) {
+                if (!doubleEquals(thisNode.getPoint().getY(), point.getY())) {
                     return false;
                 }
+                thisNode = thisNode.getNext();
             }
         }
         return true;
@@ -467,27 +629,37 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
     
     @Override
     public int hashCode() {
-        int hash = getPointsCount(); // Включаем количество точек в хэш
-        FunctionNode current = head.getNext();
-        while (current != head) {
-            hash ^= current.getPoint().hashCode();
-            current = current.getNext();
-        }
-        return hash;
+        return pointsCount ^ pointsHash; // Включаем количество точек в хэш
     }
 
     @Override
     public Object clone() {
+        // Клон за O(1): цепочка общая, копируется той стороной, которая первой её изменит
         LinkedListTabulatedFunction cloned = new LinkedListTabulatedFunction();
-        FunctionNode current = head.getNext();
-        while (current != head) {
-            FunctionNode newNode = cloned.addNodeToTail();
-            newNode.setPoint((FunctionPoint) current.getPoint().clone());
-            current = current.getNext();
-        }
+        cloned.head = head;
+        cloned.pointsCount = pointsCount;
+        cloned.pointsHash = pointsHash;
+        cloned.lastAccess = new AccessCursor(head, -1);
+        owners.incrementAndGet();
+        cloned.owners = owners;
         return  cloned;        
     }
 
+    private void ensureOwnList() {
+        if (owners.get() > 1) {
+            FunctionNode oldHead = head;
+            AtomicInteger oldOwners = owners;
+            int hash = pointsHash;
+            emptyList();
+            for (FunctionNode current = oldHead.getNext(); current != oldHead; current = current.getNext()) {
+                addNodeToTail().setPoint(current.getPoint());
+            }
+            pointsHash = hash;
+            // Счётчик уменьшается после копирования: до этого другой владелец не должен писать на месте
+            oldOwners.decrementAndGet();
+        }
+    }
+
     @Override
     public Iterator<FunctionPoint> iterator() {
         return new Iterator<FunctionPoint>() {
@@ -516,17 +688,38 @@ public class LinkedListTabulatedFunction implements TabulatedFunction, Serializa
         };
     }
 
-    private int getNodeIndex(FunctionNode node) {
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(pointsCount);
         FunctionNode current = head.getNext();
-        int index = 0;
         while (current != head) {
-            if (current == node){
-                return index;
-            }
+            out.writeDouble(current.getPoint().getX());
+            out.writeDouble(current.getPoint().getY());
             current = current.getNext();
-            index++;
         }
-        throw new IllegalStateException ("Узел не найден в списке");
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new InvalidObjectException("Некорректное количество точек: " + count);
+        }
+        emptyList();
+        for (int i = 0; i < count; i++) {
+            double x = in.readDouble();
+            double y = in.readDouble();
+            setNodePoint(addNodeToTail(), new FunctionPoint(x, y));
+        }
+    }
+
+    private static void recordLookup(int scanned, boolean cacheHit) {
+        TabulatedFunctionMetrics.recordLookup(scanned);
+        if (cacheHit) {
+            TabulatedFunctionMetrics.recordCacheHit();
+        } else {
+            TabulatedFunctionMetrics.recordCacheMiss();
+        }
     }
 
     private boolean doubleEquals(double a, double b) {
@@ -0,0 +1,308 @@
+package functions;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+// Декоратор табулированной функции с индексом для запросов по отрезку [a, b]:
+// максимум, минимум, интеграл и среднее значение за O(log n).
+// Ординаты хранятся в дереве отрезков (минимум и максимум), площади трапеций - в дереве Фенвика.
+// setPointY обновляет индекс за O(log n); вставка, удаление и сдвиг точек только помечают индекс
+// устаревшим, и он перестраивается за O(n) при следующем запросе, так что серия вставок
+// оплачивает одну перестройку. Декоратор хранит собственную копию функции, поэтому изменить
+// точки в обход него нельзя
+public class RangeQueryTabulatedFunction implements TabulatedFunction {
+    private static final long serialVersionUID = 9L;
+    private static final double EPSILON = 1e-9;
+
+    private final TabulatedFunction function;
+    private transient double[] xs;
+    private transient double[] ys;
+    private transient int size;
+    private transient double[] minTree;
+    private transient double[] maxTree;
+    private transient double[] areaTree;
+    private transient boolean valid;
+
+    // Декоратор работает с собственной копией функции: изменения переданного объекта
+    // на индекс не влияют и не могут сделать его устаревшим
+    public RangeQueryTabulatedFunction(TabulatedFunction function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        this.function = (TabulatedFunction) function.clone();
+    }
+
+    private RangeQueryTabulatedFunction(TabulatedFunction function, boolean owned) {
+        this.function = function;
+    }
+
+    // Копия текущих точек; собственная функция наружу не отдаётся
+    public TabulatedFunction getFunction() {
+        return (TabulatedFunction) function.clone();
+    }
+
+    public double getMax(double leftX, double rightX) {
+        return extremum(leftX, rightX, true);
+    }
+
+    public double getMin(double leftX, double rightX) {
+        return extremum(leftX, rightX, false);
+    }
+
+    // Интеграл кусочно-линейной функции по отрезку [leftX, rightX] (точный, по формуле трапеций)
+    public double getIntegral(double leftX, double rightX) {
+        checkRange(leftX, rightX);
+        int n = xs.length;
+        int first = firstIndexNotLess(leftX);
+        int last = firstIndexNotLess(rightX) - 1;
+        if (first > last) {
+            return (value(leftX) + value(rightX)) / 2 * (rightX - leftX);
+        }
+        double integral = (value(leftX) + ys[first]) / 2 * (xs[first] - leftX);
+        integral += areaSum(last) - areaSum(first);
+        if (last < n - 1) {
+            integral += (ys[last] + value(rightX)) / 2 * (rightX - xs[last]);
+        }
+        return integral;
+    }
+
+    public double getMean(double leftX, double rightX) {
+        if (rightX - leftX <= EPSILON) {
+            checkRange(leftX, rightX);
+            return value(leftX);
+        }
+        return getIntegral(leftX, rightX) / (rightX - leftX);
+    }
+
+    private double extremum(double leftX, double rightX, boolean max) {
+        checkRange(leftX, rightX);
+        double a = value(leftX);
+        double b = value(rightX);
+        double result = max ? Math.max(a, b) : Math.min(a, b);
+        int first = firstIndexNotLess(leftX);
+        int last = firstIndexNotLess(rightX) - 1;
+        if (first <= last) {
+            double inner = treeQuery(max ? maxTree : minTree, first, last, max);
+            result = max ? Math.max(result, inner) : Math.min(result, inner);
+        }
+        return result;
+    }
+
+    private void checkRange(double leftX, double rightX) {
+        if (leftX > rightX) {
+            throw new IllegalArgumentException("Левая граница отрезка должна быть не больше правой");
+        }
+        ensureIndex();
+        if (leftX < xs[0] - EPSILON || rightX > xs[xs.length - 1] + EPSILON) {
+            throw new IllegalArgumentException("Границы выходят за область определения");
+        }
+    }
+
+    // Первый индекс точки с абсциссой не меньше x (узлы, совпадающие с x с точностью EPSILON,
+    // относятся к внутренней части отрезка)
+    private int firstIndexNotLess(double x) {
+        int low = 0;
+        int high = xs.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (xs[middle] < x - EPSILON) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private double value(double x) {
+        x = Math.max(xs[0], Math.min(xs[xs.length - 1], x));
+        return TabulatedOperations.valueInSegment(xs, ys, TabulatedOperations.findSegment(xs, x), x);
+    }
+
+    private void ensureIndex() {
+        if (valid) {
+            return;
+        }
+        double[][] arrays = TabulatedOperations.toArrays(function);
+        xs = arrays[0];
+        ys = arrays[1];
+        int n = xs.length;
+        size = 1;
+        while (size < n) {
+            size <<= 1;
+        }
+        minTree = new double[2 * size];
+        maxTree = new double[2 * size];
+        Arrays.fill(minTree, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxTree, Double.NEGATIVE_INFINITY);
+        for (int i = 0; i < n; i++) {
+            minTree[size + i] = ys[i];
+            maxTree[size + i] = ys[i];
+        }
+        for (int i = size - 1; i > 0; i--) {
+            minTree[i] = Math.min(minTree[2 * i], minTree[2 * i + 1]);
+            maxTree[i] = Math.max(maxTree[2 * i], maxTree[2 * i + 1]);
+        }
+
+        // Дерево Фенвика над площадями трапеций отрезков [x_i, x_{i+1}]
+        areaTree = new double[n];
+        for (int i = 0; i < n - 1; i++) {
+            areaTree[i + 1] += segmentArea(i);
+            int parent = (i + 1) + ((i + 1) & -(i + 1));
+            if (parent < n) {
+                areaTree[parent] += areaTree[i + 1];
+            }
+        }
+        valid = true;
+    }
+
+    private double segmentArea(int i) {
+        return (ys[i] + ys[i + 1]) / 2 * (xs[i + 1] - xs[i]);
+    }
+
+    // Сумма площадей отрезков с индексами [0, count)
+    private double areaSum(int count) {
+        double sum = 0.0;
+        for (int i = count; i > 0; i -= i & -i) {
+            sum += areaTree[i];
+        }
+        return sum;
+    }
+
+    private void areaAdd(int segment, double delta) {
+        for (int i = segment + 1; i < areaTree.length; i += i & -i) {
+            areaTree[i] += delta;
+        }
+    }
+
+    private double treeQuery(double[] tree, int from, int to, boolean max) {
+        double result = max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        for (int l = from + size, r = to + size + 1; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                result = max ? Math.max(result, tree[l]) : Math.min(result, tree[l]);
+                l++;
+            }
+            if ((r & 1) == 1) {
+                r--;
+                result = max ? Math.max(result, tree[r]) : Math.min(result, tree[r]);
+            }
+        }
+        return result;
+    }
+
+    private void updateY(int index, double y) {
+        int n = xs.length;
+        double leftArea = index > 0 ? segmentArea(index - 1) : 0.0;
+        double rightArea = index < n - 1 ? segmentArea(index) : 0.0;
+        ys[index] = y;
+        if (index > 0) {
+            areaAdd(index - 1, segmentArea(index - 1) - leftArea);
+        }
+        if (index < n - 1) {
+            areaAdd(index, segmentArea(index) - rightArea);
+        }
+
+        int i = size + index;
+        minTree[i] = y;
+        maxTree[i] = y;
+        for (i >>= 1; i > 0; i >>= 1) {
+            minTree[i] = Math.min(minTree[2 * i], minTree[2 * i + 1]);
+            maxTree[i] = Math.max(maxTree[2 * i], maxTree[2 * i + 1]);
+        }
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        return function.getFunctionValue(x);
+    }
+
+    @Override
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        return function.getPoint(index);
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        valid = false;
+        function.setPoint(index, point);
+    }
+
+    @Override
+    public double getPointX(int index) {
+        return function.getPointX(index);
+    }
+
+    @Override
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        valid = false;
+        function.setPointX(index, x);
+    }
+
+    @Override
+    public double getPointY(int index) {
+        return function.getPointY(index);
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        function.setPointY(index, y);
+        if (valid) {
+            updateY(index, y);
+        }
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        valid = false;
+        function.deletePoint(index);
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        valid = false;
+        function.addPoint(point);
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        return function.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return function.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof RangeQueryTabulatedFunction) {
+            return function.equals(((RangeQueryTabulatedFunction) o).function);
+        }
+        return function.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return function.hashCode();
+    }
+
+    @Override
+    public Object clone() {
+        return new RangeQueryTabulatedFunction((TabulatedFunction) function.clone(), true);
+    }
+}
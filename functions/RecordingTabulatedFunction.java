@@ -0,0 +1,320 @@
+package functions;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Iterator;
+
+// Декоратор, записывающий трассу обращений к табулированной функции в компактный двоичный журнал
+// для последующего воспроизведения (TraceReplay). Записываются только обёрнутые объекты.
+// Формат (big-endian): заголовок MAGIC, VERSION и исходные точки функции (количество, пары x, y),
+// затем записи: код операции (byte), начало вызова в наносекундах от начала записи (long),
+// длительность в наносекундах (int) и аргументы операции. Вызовы из разных потоков записываются
+// под общей блокировкой журнала; ошибка записи останавливает журнал и возвращается из close(),
+// не затрагивая саму функцию. Обход итератором (через него работают, например, функции
+// TabulatedFunctions) записывается одной операцией, когда итератор исчерпан; брошенный на середине
+// обход в журнал не попадает
+public class RecordingTabulatedFunction implements TabulatedFunction, Closeable {
+    private static final long serialVersionUID = 15L;
+
+    static final int MAGIC = 0x54465452;
+    static final short VERSION = 1;
+
+    static final byte FUNCTION_VALUE = 0;   // double x
+    static final byte GET_POINT = 1;        // int index
+    static final byte GET_POINT_X = 2;      // int index
+    static final byte GET_POINT_Y = 3;      // int index
+    static final byte SET_POINT = 4;        // int index, double x, double y
+    static final byte SET_POINT_X = 5;      // int index, double x
+    static final byte SET_POINT_Y = 6;      // int index, double y
+    static final byte DELETE_POINT = 7;     // int index
+    static final byte ADD_POINT = 8;        // double x, double y
+    static final byte OUTPUT = 9;           // двоичный вывод outputTabulatedFunction
+    static final byte WRITE = 10;           // текстовый вывод writeTabulatedFunction
+    static final byte ITERATE = 11;         // int количество пройденных точек; время - от iterator() до конца
+
+    private final TabulatedFunction function;
+    private final transient DataOutputStream out;
+    private final transient long origin;
+    private transient IOException failure;
+    private transient boolean closed;
+
+    public RecordingTabulatedFunction(TabulatedFunction function, OutputStream out) throws IOException {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        this.function = function;
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        this.out.writeInt(MAGIC);
+        this.out.writeShort(VERSION);
+        this.out.writeInt(function.getPointsCount());
+        for (FunctionPoint point : function) {
+            this.out.writeDouble(point.getX());
+            this.out.writeDouble(point.getY());
+        }
+        this.origin = System.nanoTime();
+    }
+
+    public TabulatedFunction getFunction() {
+        return function;
+    }
+
+    // Вывод функции через TabulatedFunctions с записью операции в журнал
+    public void outputTabulatedFunction(OutputStream stream) {
+        long start = System.nanoTime();
+        try {
+            TabulatedFunctions.outputTabulatedFunction(function, stream);
+        } finally {
+            record(OUTPUT, start, 0, 0.0, 0.0);
+        }
+    }
+
+    public void writeTabulatedFunction(Writer writer) {
+        long start = System.nanoTime();
+        try {
+            TabulatedFunctions.writeTabulatedFunction(function, writer);
+        } finally {
+            record(WRITE, start, 0, 0.0, 0.0);
+        }
+    }
+
+    private void record(byte operation, long start, int index, double x, double y) {
+        long duration = System.nanoTime() - start;
+        synchronized (out) {
+            if (closed || failure != null) {
+                return;
+            }
+            try {
+                out.writeByte(operation);
+                out.writeLong(start - origin);
+                out.writeInt((int) Math.min(duration, Integer.MAX_VALUE));
+                switch (operation) {
+                    case FUNCTION_VALUE:
+                        out.writeDouble(x);
+                        break;
+                    case SET_POINT:
+                        out.writeInt(index);
+                        out.writeDouble(x);
+                        out.writeDouble(y);
+                        break;
+                    case SET_POINT_X:
+                        out.writeInt(index);
+                        out.writeDouble(x);
+                        break;
+                    case SET_POINT_Y:
+                        out.writeInt(index);
+                        out.writeDouble(y);
+                        break;
+                    case ADD_POINT:
+                        out.writeDouble(x);
+                        out.writeDouble(y);
+                        break;
+                    case GET_POINT:
+                    case GET_POINT_X:
+                    case GET_POINT_Y:
+                    case DELETE_POINT:
+                    case ITERATE:
+                        out.writeInt(index);
+                        break;
+                    default:
+                        break;
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+
+    // Дописывает буфер и закрывает журнал; функция продолжает работать без записи
+    @Override
+    public void close() throws IOException {
+        synchronized (out) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                out.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return function.getLeftDomainBorder();
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return function.getRightDomainBorder();
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        long start = System.nanoTime();
+        try {
+            return function.getFunctionValue(x);
+        } finally {
+            record(FUNCTION_VALUE, start, 0, x, 0.0);
+        }
+    }
+
+    @Override
+    public int getPointsCount() {
+        return function.getPointsCount();
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        long start = System.nanoTime();
+        try {
+            return function.getPoint(index);
+        } finally {
+            record(GET_POINT, start, index, 0.0, 0.0);
+        }
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        long start = System.nanoTime();
+        try {
+            function.setPoint(index, point);
+        } finally {
+            if (point != null) {
+                record(SET_POINT, start, index, point.getX(), point.getY());
+            }
+        }
+    }
+
+    @Override
+    public double getPointX(int index) {
+        long start = System.nanoTime();
+        try {
+            return function.getPointX(index);
+        } finally {
+            record(GET_POINT_X, start, index, 0.0, 0.0);
+        }
+    }
+
+    @Override
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        long start = System.nanoTime();
+        try {
+            function.setPointX(index, x);
+        } finally {
+            record(SET_POINT_X, start, index, x, 0.0);
+        }
+    }
+
+    @Override
+    public double getPointY(int index) {
+        long start = System.nanoTime();
+        try {
+            return function.getPointY(index);
+        } finally {
+            record(GET_POINT_Y, start, index, 0.0, 0.0);
+        }
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        long start = System.nanoTime();
+        try {
+            function.setPointY(index, y);
+        } finally {
+            record(SET_POINT_Y, start, index, 0.0, y);
+        }
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        long start = System.nanoTime();
+        try {
+            function.deletePoint(index);
+        } finally {
+            record(DELETE_POINT, start, index, 0.0, 0.0);
+        }
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        long start = System.nanoTime();
+        try {
+            function.addPoint(point);
+        } finally {
+            if (point != null) {
+                record(ADD_POINT, start, 0, point.getX(), point.getY());
+            }
+        }
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        long start = System.nanoTime();
+        Iterator<FunctionPoint> iterator = function.iterator();
+        return new Iterator<FunctionPoint>() {
+            private int visited = 0;
+            private boolean recorded = false;
+
+            @Override
+            public boolean hasNext() {
+                boolean hasNext = iterator.hasNext();
+                if (!hasNext && !recorded) {
+                    recorded = true;
+                    record(ITERATE, start, visited, 0.0, 0.0);
+                }
+                return hasNext;
+            }
+
+            @Override
+            public FunctionPoint next() {
+                FunctionPoint point = iterator.next();
+                visited++;
+                return point;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Операция удаления не поддерживается");
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return function.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof RecordingTabulatedFunction) {
+            return function.equals(((RecordingTabulatedFunction) o).function);
+        }
+        return function.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return function.hashCode();
+    }
+
+    // Журнал принадлежит одному объекту: клон и сериализованная форма - обычные копии функции без записи
+    @Override
+    public Object clone() {
+        return function.clone();
+    }
+
+    private Object writeReplace() {
+        return function;
+    }
+}
@@ -0,0 +1,601 @@
+package functions;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Табулированная функция для потоковых данных на кольцевом буфере.
+// Добавление точки в конец (append или addPoint с абсциссой больше последней) стоит O(1)
+// амортизированно, удаление точек из начала - O(1) на точку, вычисление значения - O(log n).
+// Окно можно ограничить количеством точек (setMaxPointsCount) и шириной по x (setMaxWidth):
+// после каждого добавления лишние точки удаляются из начала. Ограничения и явное удаление
+// (evictOldest, evictBefore) не оставляют в окне меньше двух точек, как в остальных реализациях.
+// Функция может быть пустой, как список, созданный конструктором без параметров, пока в неё
+// не добавлены точки
+public class SlidingWindowTabulatedFunction implements TabulatedFunction, Serializable {
+    private static final long serialVersionUID = 14L;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double EPSILON = 1e-9;
+
+    // Физический индекс логической точки i: (head + i) & (capacity - 1), ёмкость - степень двойки
+    private transient double[] xValues;
+    private transient double[] yValues;
+    private transient int head;
+    private transient int pointsCount;
+    // XOR хэшей всех точек, как в ArrayTabulatedFunction
+    private transient int pointsHash;
+    private int maxPointsCount = Integer.MAX_VALUE;
+    private double maxWidth = Double.POSITIVE_INFINITY;
+
+    public SlidingWindowTabulatedFunction() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    // Пустое окно с заданными ограничениями по количеству точек и ширине
+    public SlidingWindowTabulatedFunction(int maxPointsCount, double maxWidth) {
+        this.maxPointsCount = checkMaxPointsCount(maxPointsCount);
+        this.maxWidth = checkMaxWidth(maxWidth);
+        allocate(capacityFor(Math.min(maxPointsCount, INITIAL_CAPACITY)));
+    }
+
+    public SlidingWindowTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this(leftX, rightX, new double[checkPointsCount(pointsCount)]);
+    }
+
+    public SlidingWindowTabulatedFunction(double leftX, double rightX, double[] values) {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница области определения должна быть меньше правой");
+        }
+        if (values.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >=2");
+        }
+
+        allocate(capacityFor(values.length));
+        double distance = (rightX - leftX) / (values.length - 1);
+        for (int i = 0; i < values.length; i++) {
+            putLast(leftX + i * distance, values[i]);
+        }
+    }
+
+    public SlidingWindowTabulatedFunction(FunctionPoint[] points) {
+        if (points.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >= 2");
+        }
+        for (int i = 1; i < points.length; i++) {
+            if (points[i] == null || points[i - 1] == null) {
+                throw new IllegalArgumentException("Точки не могут быть null");
+            }
+            if (doubleLessOrEquals(points[i].getX(), points[i - 1].getX())) {
+                throw new IllegalArgumentException("Точки должны возрастать по абсциссе");
+            }
+        }
+
+        allocate(capacityFor(points.length));
+        for (FunctionPoint point : points) {
+            putLast(point.getX(), point.getY());
+        }
+    }
+
+    public SlidingWindowTabulatedFunction(double[] xValues, double[] yValues) {
+        if (xValues.length != yValues.length) {
+            throw new IllegalArgumentException("Массивы абсцисс и ординат должны быть одной длины");
+        }
+        if (xValues.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >= 2");
+        }
+        for (int i = 1; i < xValues.length; i++) {
+            if (doubleLessOrEquals(xValues[i], xValues[i - 1])) {
+                throw new IllegalArgumentException("Точки должны возрастать по абсциссе");
+            }
+        }
+
+        allocate(capacityFor(xValues.length));
+        for (int i = 0; i < xValues.length; i++) {
+            putLast(xValues[i], yValues[i]);
+        }
+    }
+
+    private static int checkPointsCount(int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >=2");
+        }
+        return pointsCount;
+    }
+
+    private static int checkMaxPointsCount(int maxPointsCount) {
+        if (maxPointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >=2");
+        }
+        return maxPointsCount;
+    }
+
+    private static double checkMaxWidth(double maxWidth) {
+        if (!(maxWidth > 0)) {
+            throw new IllegalArgumentException("Ширина окна должна быть положительной");
+        }
+        return maxWidth;
+    }
+
+    public static class SlidingWindowTabulatedFunctionFactory implements TabulatedFunctionFactory {
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, int pointsCount) {
+            return new SlidingWindowTabulatedFunction(leftX, rightX, pointsCount);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, double[] values) {
+            return new SlidingWindowTabulatedFunction(leftX, rightX, values);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(FunctionPoint[] points) {
+            return new SlidingWindowTabulatedFunction(points);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double[] xValues, double[] yValues) {
+            return new SlidingWindowTabulatedFunction(xValues, yValues);
+        }
+    }
+
+    public int getMaxPointsCount() {
+        return maxPointsCount;
+    }
+
+    // Наибольшее количество точек в окне; при превышении удаляются самые старые
+    public void setMaxPointsCount(int maxPointsCount) {
+        this.maxPointsCount = checkMaxPointsCount(maxPointsCount);
+        trim();
+    }
+
+    public double getMaxWidth() {
+        return maxWidth;
+    }
+
+    // Наибольшая ширина окна по x: точки левее x_last - maxWidth удаляются, но две последние
+    // точки остаются, даже если расстояние между ними больше maxWidth
+    public void setMaxWidth(double maxWidth) {
+        this.maxWidth = checkMaxWidth(maxWidth);
+        trim();
+    }
+
+    // Добавление точки в конец; абсцисса должна быть больше последней
+    public void append(double x, double y) throws InappropriateFunctionPointException {
+        if (pointsCount > 0 && doubleLessOrEquals(x, xAt(pointsCount - 1))) {
+            throw new InappropriateFunctionPointException("Новая точка должна быть больше последней по x");
+        }
+        putLast(x, y);
+        trim();
+    }
+
+    // Удаление count самых старых точек, но не больше, чем оставляет в окне две точки;
+    // возвращает количество удалённых точек
+    public int evictOldest(int count) {
+        if (count < 0 || count > pointsCount) {
+            throw new IllegalArgumentException("Нельзя удалить " + count + " точек из " + pointsCount);
+        }
+        int evicted = Math.min(count, Math.max(pointsCount - 2, 0));
+        for (int i = 0; i < evicted; i++) {
+            removeFirst();
+        }
+        return evicted;
+    }
+
+    // Удаление точек с абсциссой меньше x, кроме двух последних; возвращает количество удалённых точек
+    public int evictBefore(double x) {
+        int low = 0;
+        int high = pointsCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (xAt(middle) < x) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return evictOldest(low);
+    }
+
+    // maxPointsCount не меньше двух, а по ширине удаление останавливается на двух точках
+    private void trim() {
+        while (pointsCount > maxPointsCount) {
+            removeFirst();
+        }
+        if (maxWidth != Double.POSITIVE_INFINITY && pointsCount > 2) {
+            double border = xAt(pointsCount - 1) - maxWidth;
+            while (pointsCount > 2 && xAt(0) < border) {
+                removeFirst();
+            }
+        }
+    }
+
+    private int physical(int index) {
+        return (head + index) & (xValues.length - 1);
+    }
+
+    private double xAt(int index) {
+        return xValues[(head + index) & (xValues.length - 1)];
+    }
+
+    private double yAt(int index) {
+        return yValues[(head + index) & (xValues.length - 1)];
+    }
+
+    private void putLast(double x, double y) {
+        if (pointsCount == xValues.length) {
+            increaseCapacity();
+        }
+        int i = physical(pointsCount);
+        xValues[i] = x;
+        yValues[i] = y;
+        pointsCount++;
+        pointsHash ^= Double.hashCode(x) ^ Double.hashCode(y);
+    }
+
+    private void removeFirst() {
+        pointsHash ^= Double.hashCode(xValues[head]) ^ Double.hashCode(yValues[head]);
+        head = (head + 1) & (xValues.length - 1);
+        pointsCount--;
+    }
+
+    private void allocate(int capacity) {
+        xValues = new double[capacity];
+        yValues = new double[capacity];
+        head = 0;
+        pointsCount = 0;
+        pointsHash = 0;
+    }
+
+    private static int capacityFor(int count) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < count) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    // Удвоение ёмкости с переносом точек в начало нового буфера
+    private void increaseCapacity() {
+        int capacity = xValues.length * 2;
+        double[] newX = new double[capacity];
+        double[] newY = new double[capacity];
+        int first = Math.min(pointsCount, xValues.length - head);
+        System.arraycopy(xValues, head, newX, 0, first);
+        System.arraycopy(yValues, head, newY, 0, first);
+        System.arraycopy(xValues, 0, newX, first, pointsCount - first);
+        System.arraycopy(yValues, 0, newY, first, pointsCount - first);
+        xValues = newX;
+        yValues = newY;
+        head = 0;
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        if (pointsCount == 0) {
+            throw new IllegalStateException("Функция не содержит точек");
+        }
+        return xAt(0);
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        if (pointsCount == 0) {
+            throw new IllegalStateException("Функция не содержит точек");
+        }
+        return xAt(pointsCount - 1);
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        if (pointsCount == 0 || doubleLess(x, xAt(0)) || doubleGreater(x, xAt(pointsCount - 1))) {
+            return Double.NaN;
+        }
+        if (pointsCount == 1) {
+            return yAt(0);
+        }
+
+        // Двоичный поиск отрезка [x_1, x_2], содержащего x
+        int low = 0;
+        int high = pointsCount - 1;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (xAt(middle) <= x) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+
+        double x_1 = xAt(low);
+        double x_2 = xAt(high);
+        if (doubleEquals(x, x_1)) {
+            return yAt(low);
+        }
+        if (doubleEquals(x, x_2)) {
+            return yAt(high);
+        }
+        double y_1 = yAt(low);
+        double y_2 = yAt(high);
+        return (x - x_1) * (y_2 - y_1) / (x_2 - x_1) + y_1;
+    }
+
+    @Override
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        return new FunctionPoint(xAt(index), yAt(index));
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        if (point == null) {
+            throw new IllegalArgumentException("Точка без значения");
+        }
+        checkIndex(index);
+        checkNewX(index, point.getX());
+        replace(index, point.getX(), point.getY());
+    }
+
+    @Override
+    public double getPointX(int index) {
+        checkIndex(index);
+        return xAt(index);
+    }
+
+    @Override
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        checkNewX(index, x);
+        replace(index, x, yAt(index));
+    }
+
+    @Override
+    public double getPointY(int index) {
+        checkIndex(index);
+        return yAt(index);
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        checkIndex(index);
+        replace(index, xAt(index), y);
+    }
+
+    private void replace(int index, double x, double y) {
+        int i = physical(index);
+        pointsHash ^= Double.hashCode(xValues[i]) ^ Double.hashCode(yValues[i]);
+        xValues[i] = x;
+        yValues[i] = y;
+        pointsHash ^= Double.hashCode(x) ^ Double.hashCode(y);
+    }
+
+    // Удаление первой точки - O(1); остальные точки сдвигаются с той стороны, где их меньше
+    @Override
+    public void deletePoint(int index) {
+        if (pointsCount <= 2) {
+            throw new IllegalStateException("Минимальное количество точек: 2");
+        }
+        checkIndex(index);
+
+        int i = physical(index);
+        pointsHash ^= Double.hashCode(xValues[i]) ^ Double.hashCode(yValues[i]);
+        if (index < pointsCount / 2) {
+            for (int k = index; k > 0; k--) {
+                int to = physical(k);
+                int from = physical(k - 1);
+                xValues[to] = xValues[from];
+                yValues[to] = yValues[from];
+            }
+            head = (head + 1) & (xValues.length - 1);
+        } else {
+            for (int k = index; k < pointsCount - 1; k++) {
+                int to = physical(k);
+                int from = physical(k + 1);
+                xValues[to] = xValues[from];
+                yValues[to] = yValues[from];
+            }
+        }
+        pointsCount--;
+    }
+
+    // Точка с абсциссой больше последней добавляется в конец за O(1), с учётом ограничений окна;
+    // иначе место ищется двоичным поиском и сдвигаются точки с той стороны, где их меньше
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        if (point == null) {
+            throw new IllegalArgumentException("Точка не может быть null");
+        }
+        double x = point.getX();
+        if (pointsCount == 0 || doubleGreater(x, xAt(pointsCount - 1))) {
+            putLast(x, point.getY());
+            trim();
+            return;
+        }
+
+        int low = 0;
+        int high = pointsCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (doubleLess(xAt(middle), x)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (doubleEquals(xAt(low), x)) {
+            throw new InappropriateFunctionPointException("Такая точка уже существует");
+        }
+
+        if (pointsCount == xValues.length) {
+            increaseCapacity();
+        }
+        if (low < pointsCount / 2) {
+            // Начало буфера отступает на одну позицию, точки левее места вставки сдвигаются к нему
+            head = (head - 1) & (xValues.length - 1);
+            for (int k = 0; k < low; k++) {
+                int to = physical(k);
+                int from = physical(k + 1);
+                xValues[to] = xValues[from];
+                yValues[to] = yValues[from];
+            }
+        } else {
+            for (int k = pointsCount; k > low; k--) {
+                int to = physical(k);
+                int from = physical(k - 1);
+                xValues[to] = xValues[from];
+                yValues[to] = yValues[from];
+            }
+        }
+        int i = physical(low);
+        xValues[i] = x;
+        yValues[i] = point.getY();
+        pointsCount++;
+        pointsHash ^= Double.hashCode(x) ^ Double.hashCode(point.getY());
+        trim();
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        return new Iterator<FunctionPoint>() {
+            private int currentIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < pointsCount;
+            }
+
+            @Override
+            public FunctionPoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("В табулированной функции кончились точки");
+                }
+                int i = physical(currentIndex++);
+                return new FunctionPoint(xValues[i], yValues[i]);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Операция удаления не поддерживается");
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        str.append("{");
+        for (int i = 0; i < pointsCount; i++) {
+            str.append("(").append(xAt(i)).append("; ").append(yAt(i)).append(")");
+            if (i < pointsCount - 1) {
+                str.append(",");
+            }
+        }
+        str.append("}");
+        return str.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TabulatedFunction)) {
+            return false;
+        }
+
+        TabulatedFunction newFunc = (TabulatedFunction) o;
+        if (pointsCount != newFunc.getPointsCount()) {
+            return false;
+        }
+        for (int i = 0; i < pointsCount; i++) {
+            if (!doubleEquals(xAt(i), newFunc.getPointX(i)) || !doubleEquals(yAt(i), newFunc.getPointY(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return pointsCount ^ pointsHash;
+    }
+
+    @Override
+    public Object clone() {
+        try {
+            SlidingWindowTabulatedFunction cloned = (SlidingWindowTabulatedFunction) super.clone();
+            cloned.xValues = xValues.clone();
+            cloned.yValues = yValues.clone();
+            return cloned;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(pointsCount);
+        for (int i = 0; i < pointsCount; i++) {
+            out.writeDouble(xAt(i));
+            out.writeDouble(yAt(i));
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (maxPointsCount < 2 || !(maxWidth > 0)) {
+            throw new InvalidObjectException("Некорректные ограничения окна: " + maxPointsCount + ", " + maxWidth);
+        }
+        int count = in.readInt();
+        if (count < 0) {
+            throw new InvalidObjectException("Некорректное количество точек: " + count);
+        }
+        allocate(capacityFor(count));
+        for (int i = 0; i < count; i++) {
+            putLast(in.readDouble(), in.readDouble());
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
+        }
+    }
+
+    private void checkNewX(int index, double x) throws InappropriateFunctionPointException {
+        if (index > 0 && doubleLessOrEquals(x, xAt(index - 1))) {
+            throw new InappropriateFunctionPointException("Новая точка должна быть больше предыдущей по x");
+        }
+        if (index < pointsCount - 1 && doubleGreaterOrEquals(x, xAt(index + 1))) {
+            throw new InappropriateFunctionPointException("Новая точка должна быть меньше следующей по x");
+        }
+    }
+
+    private boolean doubleEquals(double a, double b) {
+        return Math.abs(a - b) < EPSILON;
+    }
+
+    private boolean doubleLess(double a, double b) {
+        return a < b - EPSILON;
+    }
+
+    private boolean doubleGreater(double a, double b) {
+        return a > b + EPSILON;
+    }
+
+    private boolean doubleLessOrEquals(double a, double b) {
+        return a < b + EPSILON;
+    }
+
+    private boolean doubleGreaterOrEquals(double a, double b) {
+        return a > b - EPSILON;
+    }
+}
@@ -0,0 +1,554 @@
+package functions;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Табулированная функция со сплайн-интерполяцией между точками.
+// Для каждой точки хранится производная, и на отрезке строится кубический многочлен Эрмита.
+// NATURAL - естественный кубический сплайн (вторая производная на концах равна нулю),
+// производные пересчитываются прогонкой за O(n) при любом изменении.
+// MONOTONE - монотонный сплайн Фрича-Карлсона без осцилляций; производная в точке зависит
+// только от соседних отрезков, поэтому изменение точки пересчитывает не более трёх производных
+public class SplineTabulatedFunction implements TabulatedFunction, Serializable {
+    private static final long serialVersionUID = 7L;
+
+    public enum SplineType {
+        NATURAL,
+        MONOTONE
+    }
+
+    private final SplineType type;
+    private transient double[] xValues;
+    private transient double[] yValues;
+    private transient double[] slopes;
+    private transient int pointsCount;
+    private static final double EPSILON = 1e-9;
+
+    public SplineTabulatedFunction(double leftX, double rightX, int pointsCount) {
+        this(leftX, rightX, pointsCount, SplineType.NATURAL);
+    }
+
+    public SplineTabulatedFunction(double leftX, double rightX, double[] values) {
+        this(leftX, rightX, values, SplineType.NATURAL);
+    }
+
+    public SplineTabulatedFunction(FunctionPoint[] points) {
+        this(points, SplineType.NATURAL);
+    }
+
+    public SplineTabulatedFunction(double leftX, double rightX, int pointsCount, SplineType type) {
+        this(leftX, rightX, new double[checkPointsCount(pointsCount)], type);
+    }
+
+    public SplineTabulatedFunction(double leftX, double rightX, double[] values, SplineType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Тип сплайна не может быть null");
+        }
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница области определения должна быть меньше правой");
+        }
+        if (values.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >=2");
+        }
+
+        this.type = type;
+        allocate(values.length);
+        double distance = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            xValues[i] = leftX + i * distance;
+            yValues[i] = values[i];
+        }
+        computeAllSlopes();
+    }
+
+    public SplineTabulatedFunction(FunctionPoint[] points, SplineType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Тип сплайна не может быть null");
+        }
+        if (points.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >= 2");
+        }
+        for (int i = 1; i < points.length; i++) {
+            if (points[i] == null || points[i - 1] == null) {
+                throw new IllegalArgumentException("Точки не могут быть null");
+            }
+            if (doubleLessOrEquals(points[i].getX(), points[i - 1].getX())) {
+                throw new IllegalArgumentException("Точки должны возрастать по абсциссе");
+            }
+        }
+
+        this.type = type;
+        allocate(points.length);
+        for (int i = 0; i < pointsCount; i++) {
+            xValues[i] = points[i].getX();
+            yValues[i] = points[i].getY();
+        }
+        computeAllSlopes();
+    }
+
+    public SplineTabulatedFunction(double[] xValues, double[] yValues, SplineType type) {
+        this(xValues, yValues, type, false);
+    }
+
+    // trusted: массивы проверены вызывающим кодом и используются без копирования
+    private SplineTabulatedFunction(double[] xValues, double[] yValues, SplineType type, boolean trusted) {
+        if (type == null) {
+            throw new IllegalArgumentException("Тип сплайна не может быть null");
+        }
+        if (!trusted) {
+            if (xValues.length != yValues.length) {
+                throw new IllegalArgumentException("Массивы абсцисс и ординат должны быть одной длины");
+            }
+            if (xValues.length < 2) {
+                throw new IllegalArgumentException("Количество точек должно быть >= 2");
+            }
+            for (int i = 1; i < xValues.length; i++) {
+                if (doubleLessOrEquals(xValues[i], xValues[i - 1])) {
+                    throw new IllegalArgumentException("Точки должны возрастать по абсциссе");
+                }
+            }
+        }
+
+        this.type = type;
+        if (trusted) {
+            pointsCount = xValues.length;
+            this.xValues = xValues;
+            this.yValues = yValues;
+            slopes = new double[xValues.length];
+        } else {
+            allocate(xValues.length);
+            System.arraycopy(xValues, 0, this.xValues, 0, pointsCount);
+            System.arraycopy(yValues, 0, this.yValues, 0, pointsCount);
+        }
+        computeAllSlopes();
+    }
+
+    private static int checkPointsCount(int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >=2");
+        }
+        return pointsCount;
+    }
+
+    public static class SplineTabulatedFunctionFactory implements TabulatedFunctionFactory {
+        private final SplineType type;
+
+        public SplineTabulatedFunctionFactory() {
+            this(SplineType.NATURAL);
+        }
+
+        public SplineTabulatedFunctionFactory(SplineType type) {
+            if (type == null) {
+                throw new IllegalArgumentException("Тип сплайна не может быть null");
+            }
+            this.type = type;
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, int pointsCount) {
+            return new SplineTabulatedFunction(leftX, rightX, pointsCount, type);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, double[] values) {
+            return new SplineTabulatedFunction(leftX, rightX, values, type);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(FunctionPoint[] points) {
+            return new SplineTabulatedFunction(points, type);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double[] xValues, double[] yValues) {
+            return new SplineTabulatedFunction(xValues, yValues, type);
+        }
+
+        @Override
+        public TabulatedFunction createTrustedTabulatedFunction(double[] xValues, double[] yValues) {
+            return new SplineTabulatedFunction(xValues, yValues, type, true);
+        }
+    }
+
+    public SplineType getSplineType() {
+        return type;
+    }
+
+    @Override
+    public double getLeftDomainBorder() {
+        return xValues[0];
+    }
+
+    @Override
+    public double getRightDomainBorder() {
+        return xValues[pointsCount - 1];
+    }
+
+    @Override
+    public double getFunctionValue(double x) {
+        if (doubleLess(x, xValues[0]) || doubleGreater(x, xValues[pointsCount - 1])) {
+            return Double.NaN;
+        }
+
+        int low = 0;
+        int high = pointsCount - 1;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (xValues[middle] <= x) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+
+        double x_1 = xValues[low];
+        double x_2 = xValues[high];
+        if (doubleEquals(x, x_1)) {
+            return yValues[low];
+        }
+        if (doubleEquals(x, x_2)) {
+            return yValues[high];
+        }
+
+        double h = x_2 - x_1;
+        double t = (x - x_1) / h;
+        double t2 = t * t;
+        double t3 = t2 * t;
+        return (2 * t3 - 3 * t2 + 1) * yValues[low]
+                + (t3 - 2 * t2 + t) * h * slopes[low]
+                + (3 * t2 - 2 * t3) * yValues[high]
+                + (t3 - t2) * h * slopes[high];
+    }
+
+    @Override
+    public int getPointsCount() {
+        return pointsCount;
+    }
+
+    @Override
+    public FunctionPoint getPoint(int index) {
+        checkIndex(index);
+        return new FunctionPoint(xValues[index], yValues[index]);
+    }
+
+    @Override
+    public void setPoint(int index, FunctionPoint point) throws InappropriateFunctionPointException {
+        if (point == null) {
+            throw new IllegalArgumentException("Точка без значения");
+        }
+        checkIndex(index);
+        checkNewX(index, point.getX());
+        xValues[index] = point.getX();
+        yValues[index] = point.getY();
+        updateSlopes(index);
+    }
+
+    @Override
+    public double getPointX(int index) {
+        checkIndex(index);
+        return xValues[index];
+    }
+
+    @Override
+    public void setPointX(int index, double x) throws InappropriateFunctionPointException {
+        checkIndex(index);
+        checkNewX(index, x);
+        xValues[index] = x;
+        updateSlopes(index);
+    }
+
+    @Override
+    public double getPointY(int index) {
+        checkIndex(index);
+        return yValues[index];
+    }
+
+    @Override
+    public void setPointY(int index, double y) {
+        checkIndex(index);
+        yValues[index] = y;
+        updateSlopes(index);
+    }
+
+    @Override
+    public void deletePoint(int index) {
+        if (pointsCount <= 2) {
+            throw new IllegalStateException("Минимальное количество точек: 2");
+        }
+        checkIndex(index);
+
+        System.arraycopy(xValues, index + 1, xValues, index, pointsCount - index - 1);
+        System.arraycopy(yValues, index + 1, yValues, index, pointsCount - index - 1);
+        System.arraycopy(slopes, index + 1, slopes, index, pointsCount - index - 1);
+        pointsCount--;
+        // Соседи удалённой точки оказались на индексах index - 1 и index
+        updateSlopes(Math.min(index, pointsCount - 1));
+    }
+
+    @Override
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        if (point == null) {
+            throw new IllegalArgumentException("Точка не может быть null");
+        }
+        int newIndex = 0;
+        while (newIndex < pointsCount && doubleLess(xValues[newIndex], point.getX())) {
+            newIndex++;
+        }
+        if (newIndex < pointsCount && doubleEquals(xValues[newIndex], point.getX())) {
+            throw new InappropriateFunctionPointException("Такая точка уже существует");
+        }
+        if (pointsCount == xValues.length) {
+            increaseArraySize();
+        }
+
+        System.arraycopy(xValues, newIndex, xValues, newIndex + 1, pointsCount - newIndex);
+        System.arraycopy(yValues, newIndex, yValues, newIndex + 1, pointsCount - newIndex);
+        System.arraycopy(slopes, newIndex, slopes, newIndex + 1, pointsCount - newIndex);
+        xValues[newIndex] = point.getX();
+        yValues[newIndex] = point.getY();
+        pointsCount++;
+        updateSlopes(newIndex);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder();
+        str.append("{");
+        for (int i = 0; i < pointsCount; i++) {
+            str.append("(").append(xValues[i]).append("; ").append(yValues[i]).append(")");
+            if (i < pointsCount - 1) {
+                str.append(",");
+            }
+        }
+        str.append("}");
+        return str.toString();
+    }
+
+    // Равенство, как и у других реализаций, определяется только набором точек
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TabulatedFunction)) {
+            return false;
+        }
+
+        TabulatedFunction newFunc = (TabulatedFunction) o;
+        if (pointsCount != newFunc.getPointsCount()) {
+            return false;
+        }
+        for (int i = 0; i < pointsCount; i++) {
+            if (!doubleEquals(xValues[i], newFunc.getPointX(i))) {
+                return false;
+            }
+            if (!doubleEquals(yValues[i], newFunc.getPointY(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = pointsCount; // Включаем количество точек в хэш
+        for (int i = 0; i < pointsCount; i++) {
+            hash ^= Double.hashCode(xValues[i]) ^ Double.hashCode(yValues[i]);
+        }
+        return hash;
+    }
+
+    @Override
+    public Object clone() {
+        try {
+            SplineTabulatedFunction cloned = (SplineTabulatedFunction) super.clone();
+            cloned.xValues = xValues.clone();
+            cloned.yValues = yValues.clone();
+            cloned.slopes = slopes.clone();
+            return cloned;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("Неудачная попытка клонирования", e);
+        }
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        return new Iterator<FunctionPoint>() {
+            private int currentIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return currentIndex < pointsCount;
+            }
+
+            @Override
+            public FunctionPoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("В табулированной функции кончились точки");
+                }
+                FunctionPoint point = new FunctionPoint(xValues[currentIndex], yValues[currentIndex]);
+                currentIndex++;
+                return point;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Операция удаления не поддерживается");
+            }
+        };
+    }
+
+    private void updateSlopes(int index) {
+        if (type == SplineType.NATURAL) {
+            computeAllSlopes();
+        } else {
+            for (int i = Math.max(0, index - 1); i <= Math.min(pointsCount - 1, index + 1); i++) {
+                slopes[i] = monotoneSlope(i);
+            }
+        }
+    }
+
+    private void computeAllSlopes() {
+        if (type == SplineType.MONOTONE) {
+            for (int i = 0; i < pointsCount; i++) {
+                slopes[i] = monotoneSlope(i);
+            }
+            return;
+        }
+
+        int n = pointsCount;
+        if (n == 2) {
+            slopes[0] = slopes[1] = (yValues[1] - yValues[0]) / (xValues[1] - xValues[0]);
+            return;
+        }
+
+        // Прогонка для вторых производных M_1..M_{n-2}; M_0 = M_{n-1} = 0
+        double[] secondDerivatives = new double[n];
+        double[] c = new double[n];
+        double[] d = new double[n];
+        for (int i = 1; i < n - 1; i++) {
+            double h_1 = xValues[i] - xValues[i - 1];
+            double h_2 = xValues[i + 1] - xValues[i];
+            double a = h_1 / 6;
+            double b = (h_1 + h_2) / 3;
+            double rhs = (yValues[i + 1] - yValues[i]) / h_2 - (yValues[i] - yValues[i - 1]) / h_1;
+            double denominator = b - a * c[i - 1];
+            c[i] = (h_2 / 6) / denominator;
+            d[i] = (rhs - a * d[i - 1]) / denominator;
+        }
+        for (int i = n - 2; i >= 1; i--) {
+            secondDerivatives[i] = d[i] - c[i] * secondDerivatives[i + 1];
+        }
+
+        for (int i = 0; i < n - 1; i++) {
+            double h = xValues[i + 1] - xValues[i];
+            slopes[i] = (yValues[i + 1] - yValues[i]) / h - h * (2 * secondDerivatives[i] + secondDerivatives[i + 1]) / 6;
+        }
+        double h = xValues[n - 1] - xValues[n - 2];
+        slopes[n - 1] = (yValues[n - 1] - yValues[n - 2]) / h + h * (secondDerivatives[n - 2] + 2 * secondDerivatives[n - 1]) / 6;
+    }
+
+    // Производная монотонного сплайна: взвешенное гармоническое среднее соседних наклонов,
+    // ноль в локальных экстремумах
+    private double monotoneSlope(int i) {
+        if (i == 0) {
+            return (yValues[1] - yValues[0]) / (xValues[1] - xValues[0]);
+        }
+        if (i == pointsCount - 1) {
+            return (yValues[i] - yValues[i - 1]) / (xValues[i] - xValues[i - 1]);
+        }
+        double h_1 = xValues[i] - xValues[i - 1];
+        double h_2 = xValues[i + 1] - xValues[i];
+        double d_1 = (yValues[i] - yValues[i - 1]) / h_1;
+        double d_2 = (yValues[i + 1] - yValues[i]) / h_2;
+        if (d_1 * d_2 <= 0) {
+            return 0.0;
+        }
+        double w_1 = 2 * h_2 + h_1;
+        double w_2 = h_2 + 2 * h_1;
+        return (w_1 + w_2) / (w_1 / d_1 + w_2 / d_2);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(pointsCount);
+        for (int i = 0; i < pointsCount; i++) {
+            out.writeDouble(xValues[i]);
+            out.writeDouble(yValues[i]);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count < 2 || type == null) {
+            throw new InvalidObjectException("Некорректное состояние сплайна");
+        }
+        allocate(count);
+        for (int i = 0; i < count; i++) {
+            xValues[i] = in.readDouble();
+            yValues[i] = in.readDouble();
+        }
+        computeAllSlopes();
+    }
+
+    private void allocate(int count) {
+        pointsCount = count;
+        xValues = new double[count + 2];
+        yValues = new double[count + 2];
+        slopes = new double[count + 2];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= pointsCount) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
+        }
+    }
+
+    private void checkNewX(int index, double x) throws InappropriateFunctionPointException {
+        if (index > 0 && doubleLessOrEquals(x, xValues[index - 1])) {
+            throw new InappropriateFunctionPointException("Новая точка должна быть больше предыдущей по x");
+        }
+        if (index < pointsCount - 1 && doubleGreaterOrEquals(x, xValues[index + 1])) {
+            throw new InappropriateFunctionPointException("Новая точка должна быть меньше следующей по x");
+        }
+    }
+
+    private void increaseArraySize() {
+        int capacity = xValues.length * 2 + 2;
+        double[] newX = new double[capacity];
+        double[] newY = new double[capacity];
+        double[] newSlopes = new double[capacity];
+        System.arraycopy(xValues, 0, newX, 0, pointsCount);
+        System.arraycopy(yValues, 0, newY, 0, pointsCount);
+        System.arraycopy(slopes, 0, newSlopes, 0, pointsCount);
+        xValues = newX;
+        yValues = newY;
+        slopes = newSlopes;
+    }
+
+    private boolean doubleEquals(double a, double b) {
+        return Math.abs(a - b) < EPSILON;
+    }
+
+    private boolean doubleLess(double a, double b) {
+        return a < b - EPSILON;
+    }
+
+    private boolean doubleGreater(double a, double b) {
+        return a > b + EPSILON;
+    }
+
+    private boolean doubleLessOrEquals(double a, double b) {
+        return a < b + EPSILON;
+    }
+
+    private boolean doubleGreaterOrEquals(double a, double b) {
+        return a > b - EPSILON;
+    }
+}
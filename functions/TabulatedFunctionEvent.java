@@ -0,0 +1,60 @@
+package functions;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Событие Java Flight Recorder для табулирования и ввода/вывода табулированных функций.
+// Длительность события JFR записывает сам между begin() и commit().
+// Двоичный ввод/вывод заполняет bytes, текстовый - characters: символы до кодировки,
+// которую выполняет уже Writer/Reader вызывающего кода
+@Name("functions.TabulatedFunctionOperation")
+@Label("Tabulated Function Operation")
+@Category("Functions")
+@Description("Табулирование, ввод и вывод табулированной функции")
+class TabulatedFunctionEvent extends Event {
+    static final String TABULATE = "tabulate";
+    static final String OUTPUT = "output";
+    static final String INPUT = "input";
+    static final String WRITE = "write";
+    static final String READ = "read";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Implementation")
+    Class<?> implementation;
+
+    @Label("Points Count")
+    int pointsCount;
+
+    @Label("Bytes")
+    @DataAmount(DataAmount.BYTES)
+    long bytes;
+
+    @Label("Characters")
+    long characters;
+
+    void commit(String operation, TabulatedFunction function, long bytes) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.implementation = function.getClass();
+            this.pointsCount = function.getPointsCount();
+            this.bytes = bytes;
+            commit();
+        }
+    }
+
+    void commitText(String operation, TabulatedFunction function, long characters) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.implementation = function.getClass();
+            this.pointsCount = function.getPointsCount();
+            this.characters = characters;
+            commit();
+        }
+    }
+}
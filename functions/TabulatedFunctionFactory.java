@@ -6,5 +6,24 @@ public interface TabulatedFunctionFactory {
     TabulatedFunction createTabulatedFunction(double leftX, double rightX, double[] values);
 
     TabulatedFunction createTabulatedFunction(FunctionPoint[] points);
-}
 
+    // Создание по массивам абсцисс и ординат: массивы проверяются (одинаковая длина, не меньше двух точек,
+    // возрастание абсцисс) и копируются. Реализация по умолчанию идёт через массив FunctionPoint
+    default TabulatedFunction createTabulatedFunction(double[] xValues, double[] yValues) {
+        if (xValues.length != yValues.length) {
+            throw new IllegalArgumentException("Массивы абсцисс и ординат должны быть одной длины");
+        }
+        FunctionPoint[] points = new FunctionPoint[xValues.length];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new FunctionPoint(xValues[i], yValues[i]);
+        }
+        return createTabulatedFunction(points);
+    }
+
+    // Создание по заведомо корректным массивам без проверок. Массивы передаются во владение функции:
+    // реализации, хранящие точки в массивах double, используют их без копирования,
+    // поэтому после вызова изменять их нельзя
+    default TabulatedFunction createTrustedTabulatedFunction(double[] xValues, double[] yValues) {
+        return createTabulatedFunction(xValues, yValues);
+    }
+}
@@ -0,0 +1,198 @@
+package functions;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Счётчики стоимости операций табулированных функций.
+// Включаются системным свойством -Dfunctions.metrics=true; при выключенных метриках
+// проверки ENABLED в горячих методах удаляются JIT-компилятором как мёртвый код
+public final class TabulatedFunctionMetrics {
+    private TabulatedFunctionMetrics() {
+        throw new RuntimeException("Объекты этого класса нельзя создать");
+    }
+
+    public static final boolean ENABLED = Boolean.getBoolean("functions.metrics");
+
+    public static final String OBJECT_NAME = "functions:type=TabulatedFunctionMetrics";
+
+    private static final LongAdder functionValueCalls = new LongAdder();
+    private static final LongAdder scannedSegments = new LongAdder();
+    private static final LongAdder cacheHits = new LongAdder();
+    private static final LongAdder cacheMisses = new LongAdder();
+    private static final LongAdder arrayGrowths = new LongAdder();
+    private static final LongAdder switchesToChunked = new LongAdder();
+    private static final LongAdder switchesToArray = new LongAdder();
+
+    public interface TabulatedFunctionMetricsMXBean {
+        boolean isEnabled();
+
+        long getFunctionValueCalls();
+
+        long getScannedSegments();
+
+        double getAverageScannedSegments();
+
+        long getCacheHits();
+
+        long getCacheMisses();
+
+        double getCacheHitRate();
+
+        long getArrayGrowths();
+
+        long getSwitchesToChunked();
+
+        long getSwitchesToArray();
+
+        void reset();
+    }
+
+    private static class MetricsBean implements TabulatedFunctionMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public long getFunctionValueCalls() {
+            return TabulatedFunctionMetrics.getFunctionValueCalls();
+        }
+
+        @Override
+        public long getScannedSegments() {
+            return TabulatedFunctionMetrics.getScannedSegments();
+        }
+
+        @Override
+        public double getAverageScannedSegments() {
+            return TabulatedFunctionMetrics.getAverageScannedSegments();
+        }
+
+        @Override
+        public long getCacheHits() {
+            return TabulatedFunctionMetrics.getCacheHits();
+        }
+
+        @Override
+        public long getCacheMisses() {
+            return TabulatedFunctionMetrics.getCacheMisses();
+        }
+
+        @Override
+        public double getCacheHitRate() {
+            return TabulatedFunctionMetrics.getCacheHitRate();
+        }
+
+        @Override
+        public long getArrayGrowths() {
+            return TabulatedFunctionMetrics.getArrayGrowths();
+        }
+
+        @Override
+        public long getSwitchesToChunked() {
+            return TabulatedFunctionMetrics.getSwitchesToChunked();
+        }
+
+        @Override
+        public long getSwitchesToArray() {
+            return TabulatedFunctionMetrics.getSwitchesToArray();
+        }
+
+        @Override
+        public void reset() {
+            TabulatedFunctionMetrics.reset();
+        }
+    }
+
+    // Регистрирует счётчики в платформенном MBeanServer под именем OBJECT_NAME
+    public static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsBean(), name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Не удалось зарегистрировать MBean метрик", e);
+        }
+    }
+
+    static void recordLookup(int segments) {
+        functionValueCalls.increment();
+        scannedSegments.add(segments);
+    }
+
+    static void recordCacheHit() {
+        cacheHits.increment();
+    }
+
+    static void recordCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    static void recordArrayGrowth() {
+        arrayGrowths.increment();
+    }
+
+    // Смена представления AdaptiveTabulatedFunction
+    static void recordRepresentationSwitch(boolean toChunked) {
+        if (toChunked) {
+            switchesToChunked.increment();
+        } else {
+            switchesToArray.increment();
+        }
+    }
+
+    public static long getFunctionValueCalls() {
+        return functionValueCalls.sum();
+    }
+
+    public static long getScannedSegments() {
+        return scannedSegments.sum();
+    }
+
+    public static double getAverageScannedSegments() {
+        long calls = functionValueCalls.sum();
+        return calls == 0 ? 0.0 : (double) scannedSegments.sum() / calls;
+    }
+
+    public static long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public static long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public static double getCacheHitRate() {
+        long hits = cacheHits.sum();
+        long total = hits + cacheMisses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public static long getArrayGrowths() {
+        return arrayGrowths.sum();
+    }
+
+    public static long getSwitchesToChunked() {
+        return switchesToChunked.sum();
+    }
+
+    public static long getSwitchesToArray() {
+        return switchesToArray.sum();
+    }
+
+    public static void reset() {
+        functionValueCalls.reset();
+        scannedSegments.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+        arrayGrowths.reset();
+        switchesToChunked.reset();
+        switchesToArray.reset();
+    }
+}
@@ -0,0 +1,380 @@
+package functions;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Таблица из нескольких функций, заданных на одной сетке: один столбец абсцисс и K столбцов ординат.
+// getFunctionValues находит отрезок один раз и вычисляет значения всех K функций за один проход.
+// Каждый столбец доступен как TabulatedFunction без копирования: setPointY пишет в таблицу,
+// а операции, меняющие абсциссы или количество точек, не поддерживаются, так как сетка общая
+public class TabulatedFunctionTable implements Serializable {
+    private static final long serialVersionUID = 12L;
+    private static final double EPSILON = 1e-9;
+
+    private final double[] xValues;
+    private final double[][] columns;
+    // Для равномерной сетки отрезок находится арифметически, без двоичного поиска
+    private final boolean uniform;
+
+    public TabulatedFunctionTable(double leftX, double rightX, int pointsCount, int columnsCount) {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница области определения должна быть меньше правой");
+        }
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >=2");
+        }
+        if (columnsCount < 1) {
+            throw new IllegalArgumentException("Количество столбцов должно быть >=1");
+        }
+
+        xValues = new double[pointsCount];
+        double distance = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            xValues[i] = leftX + i * distance;
+        }
+        columns = new double[columnsCount][pointsCount];
+        uniform = true;
+    }
+
+    // Табулирование всех функций на общей равномерной сетке, как в TabulatedFunctions.tabulate
+    public TabulatedFunctionTable(double leftX, double rightX, int pointsCount, Function... functions) {
+        this(leftX, rightX, pointsCount, functions.length);
+        for (Function function : functions) {
+            if (leftX < function.getLeftDomainBorder() || rightX > function.getRightDomainBorder()) {
+                throw new IllegalArgumentException("Границы выходят за область определения");
+            }
+        }
+        for (int k = 0; k < functions.length; k++) {
+            double[] column = columns[k];
+            for (int i = 0; i < xValues.length; i++) {
+                column[i] = functions[k].getFunctionValue(xValues[i]);
+            }
+        }
+    }
+
+    public TabulatedFunctionTable(double[] xValues, double[][] columns) {
+        if (xValues.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >= 2");
+        }
+        if (columns.length < 1) {
+            throw new IllegalArgumentException("Количество столбцов должно быть >=1");
+        }
+        for (int i = 1; i < xValues.length; i++) {
+            if (doubleLessOrEquals(xValues[i], xValues[i - 1])) {
+                throw new IllegalArgumentException("Точки должны возрастать по абсциссе");
+            }
+        }
+        for (double[] column : columns) {
+            if (column.length != xValues.length) {
+                throw new IllegalArgumentException("Столбцы должны быть одной длины со столбцом абсцисс");
+            }
+        }
+
+        this.xValues = xValues.clone();
+        this.columns = new double[columns.length][];
+        for (int k = 0; k < columns.length; k++) {
+            this.columns[k] = columns[k].clone();
+        }
+        uniform = false;
+    }
+
+    public int getPointsCount() {
+        return xValues.length;
+    }
+
+    public int getColumnsCount() {
+        return columns.length;
+    }
+
+    public double getLeftDomainBorder() {
+        return xValues[0];
+    }
+
+    public double getRightDomainBorder() {
+        return xValues[xValues.length - 1];
+    }
+
+    public double getPointX(int index) {
+        checkIndex(index);
+        return xValues[index];
+    }
+
+    public double getPointY(int column, int index) {
+        checkColumn(column);
+        checkIndex(index);
+        return columns[column][index];
+    }
+
+    public void setPointY(int column, int index, double y) {
+        checkColumn(column);
+        checkIndex(index);
+        columns[column][index] = y;
+    }
+
+    // Значения всех функций таблицы в точке x; вне области определения - NaN
+    public double[] getFunctionValues(double x) {
+        return getFunctionValues(x, new double[columns.length]);
+    }
+
+    // То же с записью в переданный массив, чтобы не создавать новый при каждом вызове
+    public double[] getFunctionValues(double x, double[] result) {
+        if (result.length < columns.length) {
+            throw new IllegalArgumentException("Длина массива меньше количества столбцов");
+        }
+        int last = xValues.length - 1;
+        if (doubleLess(x, xValues[0]) || doubleGreater(x, xValues[last])) {
+            for (int k = 0; k < columns.length; k++) {
+                result[k] = Double.NaN;
+            }
+            return result;
+        }
+
+        int i = findSegment(x);
+        double x_1 = xValues[i];
+        double x_2 = xValues[i + 1];
+        if (doubleEquals(x, x_1) || doubleEquals(x, x_2)) {
+            int node = doubleEquals(x, x_1) ? i : i + 1;
+            for (int k = 0; k < columns.length; k++) {
+                result[k] = columns[k][node];
+            }
+            return result;
+        }
+        double t = (x - x_1) / (x_2 - x_1);
+        for (int k = 0; k < columns.length; k++) {
+            double[] column = columns[k];
+            result[k] = column[i] + t * (column[i + 1] - column[i]);
+        }
+        return result;
+    }
+
+    // Представление столбца как табулированной функции без копирования данных
+    public TabulatedFunction getColumn(int column) {
+        checkColumn(column);
+        return new ColumnFunction(column);
+    }
+
+    // Индекс i левого конца отрезка [x_i, x_{i+1}], содержащего x
+    private int findSegment(double x) {
+        int last = xValues.length - 1;
+        if (uniform) {
+            int i = (int) ((x - xValues[0]) / (xValues[last] - xValues[0]) * last);
+            return Math.max(0, Math.min(last - 1, i));
+        }
+        int low = 0;
+        int high = last;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (xValues[middle] <= x) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private class ColumnFunction implements TabulatedFunction {
+        private static final long serialVersionUID = 13L;
+
+        private final int column;
+
+        ColumnFunction(int column) {
+            this.column = column;
+        }
+
+        private double[] values() {
+            return columns[column];
+        }
+
+        @Override
+        public double getLeftDomainBorder() {
+            return xValues[0];
+        }
+
+        @Override
+        public double getRightDomainBorder() {
+            return xValues[xValues.length - 1];
+        }
+
+        @Override
+        public double getFunctionValue(double x) {
+            int last = xValues.length - 1;
+            if (doubleLess(x, xValues[0]) || doubleGreater(x, xValues[last])) {
+                return Double.NaN;
+            }
+            int i = findSegment(x);
+            double[] ys = values();
+            double x_1 = xValues[i];
+            double x_2 = xValues[i + 1];
+            if (doubleEquals(x, x_1)) {
+                return ys[i];
+            }
+            if (doubleEquals(x, x_2)) {
+                return ys[i + 1];
+            }
+            return (x - x_1) * (ys[i + 1] - ys[i]) / (x_2 - x_1) + ys[i];
+        }
+
+        @Override
+        public int getPointsCount() {
+            return xValues.length;
+        }
+
+        @Override
+        public FunctionPoint getPoint(int index) {
+            checkIndex(index);
+            return new FunctionPoint(xValues[index], values()[index]);
+        }
+
+        @Override
+        public void setPoint(int index, FunctionPoint point) {
+            throw new UnsupportedOperationException("Абсциссы столбца таблицы изменять нельзя");
+        }
+
+        @Override
+        public double getPointX(int index) {
+            checkIndex(index);
+            return xValues[index];
+        }
+
+        @Override
+        public void setPointX(int index, double x) {
+            throw new UnsupportedOperationException("Абсциссы столбца таблицы изменять нельзя");
+        }
+
+        @Override
+        public double getPointY(int index) {
+            checkIndex(index);
+            return values()[index];
+        }
+
+        @Override
+        public void setPointY(int index, double y) {
+            checkIndex(index);
+            values()[index] = y;
+        }
+
+        @Override
+        public void deletePoint(int index) {
+            throw new UnsupportedOperationException("Количество точек столбца таблицы изменять нельзя");
+        }
+
+        @Override
+        public void addPoint(FunctionPoint point) {
+            throw new UnsupportedOperationException("Количество точек столбца таблицы изменять нельзя");
+        }
+
+        @Override
+        public Iterator<FunctionPoint> iterator() {
+            return new Iterator<FunctionPoint>() {
+                private int currentIndex = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return currentIndex < xValues.length;
+                }
+
+                @Override
+                public FunctionPoint next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException("В табулированной функции кончились точки");
+                    }
+                    FunctionPoint point = new FunctionPoint(xValues[currentIndex], values()[currentIndex]);
+                    currentIndex++;
+                    return point;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException("Операция удаления не поддерживается");
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            double[] ys = values();
+            StringBuilder str = new StringBuilder();
+            str.append("{");
+            for (int i = 0; i < xValues.length; i++) {
+                str.append("(").append(xValues[i]).append("; ").append(ys[i]).append(")");
+                if (i < xValues.length - 1) {
+                    str.append(",");
+                }
+            }
+            str.append("}");
+            return str.toString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TabulatedFunction)) {
+                return false;
+            }
+
+            TabulatedFunction newFunc = (TabulatedFunction) o;
+            if (xValues.length != newFunc.getPointsCount()) {
+                return false;
+            }
+            double[] ys = values();
+            for (int i = 0; i < xValues.length; i++) {
+                if (!doubleEquals(xValues[i], newFunc.getPointX(i)) || !doubleEquals(ys[i], newFunc.getPointY(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            double[] ys = values();
+            int hash = xValues.length; // Включаем количество точек в хэш
+            for (int i = 0; i < xValues.length; i++) {
+                hash ^= Double.hashCode(xValues[i]) ^ Double.hashCode(ys[i]);
+            }
+            return hash;
+        }
+
+        // Клон и сериализованная форма - самостоятельные копии столбца, не связанные с таблицей
+        @Override
+        public Object clone() {
+            return new ArrayTabulatedFunction(xValues, values());
+        }
+
+        private Object writeReplace() {
+            return new ArrayTabulatedFunction(xValues, values());
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= xValues.length) {
+            throw new FunctionPointIndexOutOfBoundsException("Индекс " + index + " не входит в диапазон");
+        }
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= columns.length) {
+            throw new IllegalArgumentException("Столбец " + column + " не существует");
+        }
+    }
+
+    private boolean doubleEquals(double a, double b) {
+        return Math.abs(a - b) < EPSILON;
+    }
+
+    private boolean doubleLess(double a, double b) {
+        return a < b - EPSILON;
+    }
+
+    private boolean doubleGreater(double a, double b) {
+        return a > b + EPSILON;
+    }
+
+    private boolean doubleLessOrEquals(double a, double b) {
+        return a < b + EPSILON;
+    }
+}
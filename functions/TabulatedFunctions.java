@@ -3,6 +3,14 @@ package functions;
 import java.io.*;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Supplier;
 
 
 public final class TabulatedFunctions {
@@ -10,7 +18,16 @@ public final class TabulatedFunctions {
         throw new RuntimeException("Объекты этого класса нельзя создать");
     }
 
-    private static TabulatedFunctionFactory factory = new ArrayTabulatedFunction.ArrayTabulatedFunctionFactory();
+    // Размер блока двоичного ввода-вывода через каналы
+    private static final int IO_BLOCK_SIZE = 1 << 16;
+    // Размер блока текстового вывода в символах и запас под одну точку сверх него
+    private static final int TEXT_BLOCK_SIZE = 1 << 15;
+    private static final int TEXT_BLOCK_RESERVE = 128;
+
+    // Глобальная фабрика читается без блокировок; поток может временно заменить её своей
+    // (withTabulatedFunctionFactory), не затрагивая остальные потоки
+    private static volatile TabulatedFunctionFactory factory = new ArrayTabulatedFunction.ArrayTabulatedFunctionFactory();
+    private static final ThreadLocal<TabulatedFunctionFactory> scopedFactory = new ThreadLocal<>();
 
     public static void setTabulatedFunctionFactory(TabulatedFunctionFactory newFactory) {
         if (newFactory == null) {
@@ -18,18 +35,53 @@ public final class TabulatedFunctions {
         }
         factory = newFactory;
     }
+
+    // Фабрика, действующая в текущем потоке
+    public static TabulatedFunctionFactory getTabulatedFunctionFactory() {
+        TabulatedFunctionFactory scoped = scopedFactory.get();
+        return scoped != null ? scoped : factory;
+    }
+
+    // Выполняет action, создавая функции в текущем потоке через newFactory; после выхода
+    // восстанавливается прежняя фабрика. Вложенные вызовы допустимы. Действует только
+    // в текущем потоке (в том числе виртуальном), задачам других потоков не передаётся
+    public static <T> T withTabulatedFunctionFactory(TabulatedFunctionFactory newFactory, Supplier<T> action) {
+        if (newFactory == null) {
+            throw new IllegalArgumentException("Фабрика не может быть нулевой");
+        }
+        TabulatedFunctionFactory previous = scopedFactory.get();
+        scopedFactory.set(newFactory);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                scopedFactory.remove();
+            } else {
+                scopedFactory.set(previous);
+            }
+        }
+    }
     
 
     public static TabulatedFunction createTabulatedFunction(double leftX, double rightX, int pointsCount) {
-        return factory.createTabulatedFunction(leftX, rightX, pointsCount);
+        return getTabulatedFunctionFactory().createTabulatedFunction(leftX, rightX, pointsCount);
     }
     
     public static TabulatedFunction createTabulatedFunction(double leftX, double rightX, double[] values) {
-        return factory.createTabulatedFunction(leftX, rightX, values);
+        return getTabulatedFunctionFactory().createTabulatedFunction(leftX, rightX, values);
     }
     
     public static TabulatedFunction createTabulatedFunction(FunctionPoint[] points) {
-        return factory.createTabulatedFunction(points);
+        return getTabulatedFunctionFactory().createTabulatedFunction(points);
+    }
+
+    public static TabulatedFunction createTabulatedFunction(double[] xValues, double[] yValues) {
+        return getTabulatedFunctionFactory().createTabulatedFunction(xValues, yValues);
+    }
+
+    // Массивы не проверяются и могут быть использованы функцией без копирования
+    public static TabulatedFunction createTrustedTabulatedFunction(double[] xValues, double[] yValues) {
+        return getTabulatedFunctionFactory().createTrustedTabulatedFunction(xValues, yValues);
     }
 
     public static TabulatedFunction createTabulatedFunction(Class<?> functionClass, double leftX, double rightX, int pointsCount) {
@@ -86,6 +138,8 @@ public final class TabulatedFunctions {
        
     // Перегруженный метод tabulate с использованием рефлексии
     public static TabulatedFunction tabulate(Class<?> functionClass, Function function, double leftX, double rightX, int pointsCount) {
+        TabulatedFunctionEvent event = new TabulatedFunctionEvent();
+        event.begin();
         if (leftX < function.getLeftDomainBorder() || rightX > function.getRightDomainBorder()) {
             throw new IllegalArgumentException("Границы выходят за область определения");
         }
@@ -103,11 +157,15 @@ public final class TabulatedFunctions {
             double x = leftX + i * distance;
             values[i] = function.getFunctionValue(x);
         }
-        return createTabulatedFunction(functionClass, leftX, rightX, values);
+        TabulatedFunction result = createTabulatedFunction(functionClass, leftX, rightX, values);
+        event.commit(TabulatedFunctionEvent.TABULATE, result, 0);
+        return result;
     }
 
 
     public static TabulatedFunction tabulate(Function function, double leftX, double rightX, int pointsCount){
+        TabulatedFunctionEvent event = new TabulatedFunctionEvent();
+        event.begin();
         if (leftX < function.getLeftDomainBorder() || rightX > function.getRightDomainBorder()) {
             throw new IllegalArgumentException("Границы выходят за область определения");
         }
@@ -126,37 +184,91 @@ public final class TabulatedFunctions {
             values[i] = function.getFunctionValue(x);
         }
 
-        return createTabulatedFunction(leftX, rightX, values);
+        TabulatedFunction result = createTabulatedFunction(leftX, rightX, values);
+        event.commit(TabulatedFunctionEvent.TABULATE, result, 0);
+        return result;
+    }
 
+    // Табулирование без немедленного вычисления: значения считаются блоками при первом обращении
+    public static TabulatedFunction tabulateLazy(Function function, double leftX, double rightX, int pointsCount) {
+        return new LazyTabulatedFunction(function, leftX, rightX, pointsCount);
     }
 
     public static void outputTabulatedFunction(TabulatedFunction function, OutputStream out){
-        DataOutputStream dataOut = new DataOutputStream(out);
         try {
-            dataOut.writeInt(function.getPointsCount());
-            for (int i = 0; i < function.getPointsCount(); i++) {
-                dataOut.writeDouble(function.getPointX(i));
-                dataOut.writeDouble(function.getPointY(i));
-            }
+            outputTabulatedFunction(function, Channels.newChannel(out));
+            out.flush();
+        } catch (IOException e) {
+            throw new RuntimeException ("Ошибка при выводе функции", e);
+        }
+    }
+
+    // Двоичный вывод через канал (например, FileChannel) в формате outputTabulatedFunction:
+    // количество точек, затем пары x, y в порядке big-endian. Массив и список отдают координаты
+    // блоками прямо из внутреннего хранилища, остальные реализации обходятся итератором;
+    // в канал данные переносятся блоками по IO_BLOCK_SIZE байт
+    public static void outputTabulatedFunction(TabulatedFunction function, WritableByteChannel out){
+        TabulatedFunctionEvent event = new TabulatedFunctionEvent();
+        event.begin();
+        try {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BLOCK_SIZE);
+            int pointsCount = function.getPointsCount();
+            buffer.putInt(pointsCount);
+            boolean bulk = function instanceof ArrayTabulatedFunction || function instanceof LinkedListTabulatedFunction;
+            Iterator<FunctionPoint> iterator = bulk ? null : function.iterator();
+            double[] xs = bulk ? new double[IO_BLOCK_SIZE / Double.BYTES / 2] : null;
+            double[] ys = bulk ? new double[xs.length] : null;
+            double[] block = bulk ? new double[xs.length * 2] : null;
+            int written = 0;
+            long bytes = 0;
+            do {
+                DoubleBuffer doubles = buffer.asDoubleBuffer();
+                if (bulk) {
+                    int count = Math.min(doubles.remaining() / 2, pointsCount - written);
+                    if (function instanceof ArrayTabulatedFunction) {
+                        ((ArrayTabulatedFunction) function).copyTo(xs, ys, written, count);
+                    } else {
+                        ((LinkedListTabulatedFunction) function).copyTo(xs, ys, written, count);
+                    }
+                    for (int k = 0; k < count; k++) {
+                        block[2 * k] = xs[k];
+                        block[2 * k + 1] = ys[k];
+                    }
+                    doubles.put(block, 0, count * 2);
+                    written += count;
+                } else {
+                    while (doubles.remaining() >= 2 && iterator.hasNext()) {
+                        FunctionPoint point = iterator.next();
+                        doubles.put(point.getX()).put(point.getY());
+                    }
+                }
+                buffer.position(buffer.position() + doubles.position() * Double.BYTES);
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    bytes += out.write(buffer);
+                }
+                buffer.clear();
+            } while (bulk ? written < pointsCount : iterator.hasNext());
 
-            dataOut.flush();
+            event.commit(TabulatedFunctionEvent.OUTPUT, function, bytes);
         } catch (IOException e) {
             throw new RuntimeException ("Ошибка при выводе функции", e);
-        }        
+        }
     }
 
     public static TabulatedFunction inputTabulatedFunction(InputStream in){
-        DataInputStream dataIn = new DataInputStream(in);
-        try {
-            int pointsCount = dataIn.readInt();
-            FunctionPoint[] points = new FunctionPoint[pointsCount];
+        return inputTabulatedFunction(Channels.newChannel(in));
+    }
 
-            for (int i = 0; i < pointsCount; i++) {
-                double x = dataIn.readDouble();
-                double y = dataIn.readDouble();
-                points[i] = new FunctionPoint(x, y);
-            }
-            return createTabulatedFunction(points);
+    // Двоичный ввод через канал; из канала читается ровно столько байт, сколько занимает функция
+    public static TabulatedFunction inputTabulatedFunction(ReadableByteChannel in){
+        TabulatedFunctionEvent event = new TabulatedFunctionEvent();
+        event.begin();
+        try {
+            double[][] values = readValues(in);
+            TabulatedFunction result = createTabulatedFunction(values[0], values[1]);
+            event.commit(TabulatedFunctionEvent.INPUT, result, Integer.BYTES + 2L * Double.BYTES * values[0].length);
+            return result;
 
         } catch (IOException e) {
             throw new RuntimeException ("Ошибка при вводе функции", e);
@@ -166,50 +278,140 @@ public final class TabulatedFunctions {
     // Перегруженный метод inputTabulatedFunction через рефлексию
 
     public static TabulatedFunction inputTabulatedFunction(Class<?> functionClass, InputStream in){
+        return inputTabulatedFunction(functionClass, Channels.newChannel(in));
+    }
+
+    public static TabulatedFunction inputTabulatedFunction(Class<?> functionClass, ReadableByteChannel in){
         if (!TabulatedFunction.class.isAssignableFrom(functionClass)) {
             throw new IllegalArgumentException("Класс не реализует интерфейс TabulatedFunction");
         }
         
-        DataInputStream dataIn = new DataInputStream(in);
+        TabulatedFunctionEvent event = new TabulatedFunctionEvent();
+        event.begin();
         try {
-            int pointsCount = dataIn.readInt();
-            FunctionPoint[] points = new FunctionPoint[pointsCount];
-
-            for (int i = 0; i < pointsCount; i++) {
-                double x = dataIn.readDouble();
-                double y = dataIn.readDouble();
-                points[i] = new FunctionPoint(x, y);
-            }
-            return createTabulatedFunction(functionClass, points);
+            double[][] values = readValues(in);
+            TabulatedFunction result = createTabulatedFunction(functionClass, toPoints(values[0], values[1]));
+            event.commit(TabulatedFunctionEvent.INPUT, result, Integer.BYTES + 2L * Double.BYTES * values[0].length);
+            return result;
 
         } catch (IOException e) {
             throw new RuntimeException ("Ошибка при вводе функции", e);
         }
     }
 
+    // Абсциссы и ординаты в двух массивах: {xValues, yValues}
+    private static double[][] readValues(ReadableByteChannel in) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BLOCK_SIZE);
+        readFully(in, buffer, Integer.BYTES);
+        int pointsCount = buffer.getInt();
+        if (pointsCount < 0) {
+            throw new IOException("Некорректное количество точек: " + pointsCount);
+        }
+
+        double[] xValues = new double[pointsCount];
+        double[] yValues = new double[pointsCount];
+        double[] block = new double[IO_BLOCK_SIZE / Double.BYTES];
+        int i = 0;
+        while (i < pointsCount) {
+            int count = Math.min(pointsCount - i, block.length / 2);
+            readFully(in, buffer, count * 2 * Double.BYTES);
+            buffer.asDoubleBuffer().get(block, 0, count * 2);
+            for (int k = 0; k < count; k++) {
+                xValues[i] = block[2 * k];
+                yValues[i] = block[2 * k + 1];
+                i++;
+            }
+        }
+        return new double[][] {xValues, yValues};
+    }
+
+    private static FunctionPoint[] toPoints(double[] xValues, double[] yValues) {
+        FunctionPoint[] points = new FunctionPoint[xValues.length];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new FunctionPoint(xValues[i], yValues[i]);
+        }
+        return points;
+    }
 
+    // Читает ровно length байт; буфер после чтения готов к извлечению данных
+    private static void readFully(ReadableByteChannel in, ByteBuffer buffer, int length) throws IOException {
+        buffer.clear();
+        buffer.limit(length);
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) {
+                throw new EOFException("Неожиданный конец данных");
+            }
+        }
+        buffer.flip();
+    }
+
+
+    // Текст формируется прямо в массиве символов и выводится блоками по TEXT_BLOCK_SIZE символов.
+    // Числа записывает DoubleToChars без промежуточных строк, в том же виде, что Double.toString в JDK 19+.
+    // Формат прежний: количество точек и координаты через пробел в одну строку
     public static void writeTabulatedFunction(TabulatedFunction function, Writer out){
-        PrintWriter writer = new PrintWriter(out);
+        TabulatedFunctionEvent event = new TabulatedFunctionEvent();
+        event.begin();
+        CountingWriter counter = event.isEnabled() ? new CountingWriter(out) : null;
+        Writer writer = counter != null ? counter : out;
+        try {
+            char[] chars = new char[TEXT_BLOCK_SIZE + TEXT_BLOCK_RESERVE];
+            String count = Integer.toString(function.getPointsCount());
+            count.getChars(0, count.length(), chars, 0);
+            int length = count.length();
+
+            for (FunctionPoint point : function) {
+                chars[length++] = ' ';
+                length = DoubleToChars.appendDouble(chars, length, point.getX());
+                chars[length++] = ' ';
+                length = DoubleToChars.appendDouble(chars, length, point.getY());
+                if (length >= TEXT_BLOCK_SIZE) {
+                    writer.write(chars, 0, length);
+                    length = 0;
+                }
+            }
+            writer.write(chars, 0, length);
+            writer.flush();
+            event.commitText(TabulatedFunctionEvent.WRITE, function, counter != null ? counter.count : 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при записи функции", e);
+        }
+    }
+
+    // Построчная запись в формате CSV (separator ',') или TSV ('\t'): в каждой строке x и y
+    public static void writeTabulatedFunction(TabulatedFunction function, Writer out, char separator){
+        checkSeparator(separator);
+        TabulatedFunctionEvent event = new TabulatedFunctionEvent();
+        event.begin();
+        CountingWriter counter = event.isEnabled() ? new CountingWriter(out) : null;
+        Writer writer = counter != null ? counter : out;
         try {
-            writer.print(function.getPointsCount());
-            writer.print(' ');
-
-            for (int i = 0; i < function.getPointsCount(); i++) {
-                writer.print(function.getPointX(i));
-                writer.print(' ');
-                writer.print(function.getPointY(i));
-                if (i < function.getPointsCount() - 1) {
-                    writer.print(' ');
+            char[] chars = new char[TEXT_BLOCK_SIZE + TEXT_BLOCK_RESERVE];
+            int length = 0;
+
+            for (FunctionPoint point : function) {
+                length = DoubleToChars.appendDouble(chars, length, point.getX());
+                chars[length++] = separator;
+                length = DoubleToChars.appendDouble(chars, length, point.getY());
+                chars[length++] = '\n';
+                if (length >= TEXT_BLOCK_SIZE) {
+                    writer.write(chars, 0, length);
+                    length = 0;
                 }
             }
+            writer.write(chars, 0, length);
             writer.flush();
-        } catch (Exception e) {
+            event.commitText(TabulatedFunctionEvent.WRITE, function, counter != null ? counter.count : 0);
+        } catch (IOException e) {
             throw new RuntimeException("Ошибка при записи функции", e);
         }
     }
 
     public static TabulatedFunction readTabulatedFunction(Reader in) {
-        StreamTokenizer tokenizer = new StreamTokenizer(in);
+        TabulatedFunctionEvent event = new TabulatedFunctionEvent();
+        event.begin();
+        CountingReader counter = event.isEnabled() ? new CountingReader(in) : null;
+        StreamTokenizer tokenizer = new StreamTokenizer(counter != null ? counter : in);
         try {
             tokenizer.resetSyntax();
             tokenizer.wordChars('0', '9');
@@ -241,7 +443,9 @@ public final class TabulatedFunctions {
                 points[i] = new FunctionPoint(x, y);                                   
             } 
 
-            return createTabulatedFunction(points);
+            TabulatedFunction result = createTabulatedFunction(points);
+            event.commitText(TabulatedFunctionEvent.READ, result, counter != null ? counter.count : 0);
+            return result;
 
         } catch (IOException e) {
             throw new RuntimeException("Ошибка при чтении", e);
@@ -256,7 +460,10 @@ public final class TabulatedFunctions {
             throw new IllegalArgumentException("Класс не реализует интерфейс TabulatedFunction");
         }
         
-        StreamTokenizer tokenizer = new StreamTokenizer(in);
+        TabulatedFunctionEvent event = new TabulatedFunctionEvent();
+        event.begin();
+        CountingReader counter = event.isEnabled() ? new CountingReader(in) : null;
+        StreamTokenizer tokenizer = new StreamTokenizer(counter != null ? counter : in);
         try {
             tokenizer.resetSyntax();
             tokenizer.wordChars('0', '9');
@@ -288,7 +495,9 @@ public final class TabulatedFunctions {
                 points[i] = new FunctionPoint(x, y);                                   
             } 
 
-            return createTabulatedFunction(functionClass, points);
+            TabulatedFunction result = createTabulatedFunction(functionClass, points);
+            event.commitText(TabulatedFunctionEvent.READ, result, counter != null ? counter.count : 0);
+            return result;
 
         } catch (IOException e) {
             throw new RuntimeException("Ошибка при чтении", e);
@@ -296,4 +505,137 @@ public final class TabulatedFunctions {
             throw new RuntimeException("Неверный формат числа", e);
         }
     }
+
+    // Чтение функции, записанной построчно через разделитель (CSV, TSV). Количество точек
+    // заранее не известно, строки читаются до конца потока; пустые строки пропускаются,
+    // первая строка без числа в начале считается заголовком
+    public static TabulatedFunction readTabulatedFunction(Reader in, char separator) {
+        TabulatedFunctionEvent event = new TabulatedFunctionEvent();
+        event.begin();
+        CountingReader counter = event.isEnabled() ? new CountingReader(in) : null;
+        double[][] values = readSeparated(counter != null ? counter : in, separator);
+        TabulatedFunction result = createTabulatedFunction(values[0], values[1]);
+        event.commitText(TabulatedFunctionEvent.READ, result, counter != null ? counter.count : 0);
+        return result;
+    }
+
+    public static TabulatedFunction readTabulatedFunction(Class<?> functionClass, Reader in, char separator) {
+        if (!TabulatedFunction.class.isAssignableFrom(functionClass)) {
+            throw new IllegalArgumentException("Класс не реализует интерфейс TabulatedFunction");
+        }
+
+        TabulatedFunctionEvent event = new TabulatedFunctionEvent();
+        event.begin();
+        CountingReader counter = event.isEnabled() ? new CountingReader(in) : null;
+        double[][] values = readSeparated(counter != null ? counter : in, separator);
+        TabulatedFunction result = createTabulatedFunction(functionClass, toPoints(values[0], values[1]));
+        event.commitText(TabulatedFunctionEvent.READ, result, counter != null ? counter.count : 0);
+        return result;
+    }
+
+    private static double[][] readSeparated(Reader in, char separator) {
+        checkSeparator(separator);
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in, TEXT_BLOCK_SIZE);
+        double[] xValues = new double[16];
+        double[] yValues = new double[16];
+        int pointsCount = 0;
+        boolean header = true;
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                int position = line.indexOf(separator);
+                double x;
+                try {
+                    x = Double.parseDouble((position < 0 ? line : line.substring(0, position)).trim());
+                } catch (NumberFormatException e) {
+                    // Первая непустая строка, не начинающаяся с числа, - заголовок, даже без разделителя
+                    if (header) {
+                        header = false;
+                        continue;
+                    }
+                    throw e;
+                }
+                header = false;
+                if (position < 0) {
+                    throw new RuntimeException("Отсутствует координата y");
+                }
+                double y = Double.parseDouble(line.substring(position + 1).trim());
+                if (pointsCount == xValues.length) {
+                    xValues = Arrays.copyOf(xValues, pointsCount * 2);
+                    yValues = Arrays.copyOf(yValues, pointsCount * 2);
+                }
+                xValues[pointsCount] = x;
+                yValues[pointsCount] = y;
+                pointsCount++;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Ошибка при чтении", e);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Неверный формат числа", e);
+        }
+        return new double[][] {Arrays.copyOf(xValues, pointsCount), Arrays.copyOf(yValues, pointsCount)};
+    }
+
+    private static void checkSeparator(char separator) {
+        if (separator == '\n' || separator == '\r' || separator == '.' || separator == '-'
+                || separator == '+' || Character.isLetterOrDigit(separator)) {
+            throw new IllegalArgumentException("Недопустимый разделитель: '" + separator + "'");
+        }
+    }
+
+    // Подсчёт символов для событий JFR; создаются только при включённой записи
+    private static class CountingWriter extends FilterWriter {
+        private long count;
+
+        CountingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            super.write(c);
+            count++;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            super.write(cbuf, off, len);
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            super.write(str, off, len);
+            count += len;
+        }
+    }
+
+    private static class CountingReader extends FilterReader {
+        private long count;
+
+        CountingReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c != -1) {
+                count++;
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            int n = super.read(cbuf, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
 }
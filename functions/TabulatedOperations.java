@@ -0,0 +1,640 @@
+package functions;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+// Операции над табулированными функциями, выполняемые за один проход по их точкам.
+// Результаты создаются через текущую фабрику TabulatedFunctions
+public final class TabulatedOperations {
+    private TabulatedOperations() {
+        throw new RuntimeException("Объекты этого класса нельзя создать");
+    }
+
+    private static final double EPSILON = 1e-9;
+    // Размер части сетки, обрабатываемой одной задачей при параллельном вычислении
+    private static final int CHUNK_SIZE = 1 << 14;
+    // Начиная с такого размера сетки поточечные операции выполняются параллельно
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    // Перенос функции на равномерную сетку: O(n + m) вместо O(n·m) у tabulate
+    public static TabulatedFunction resample(TabulatedFunction function, double leftX, double rightX, int pointsCount) {
+        return resample(function, leftX, rightX, pointsCount, false);
+    }
+
+    public static TabulatedFunction resample(TabulatedFunction function, double leftX, double rightX, int pointsCount, boolean parallel) {
+        if (leftX >= rightX) {
+            throw new IllegalArgumentException("Левая граница области определения должна быть меньше правой");
+        }
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >=2");
+        }
+        checkDomain(function, leftX, rightX);
+
+        double distance = (rightX - leftX) / (pointsCount - 1);
+        double[] grid = new double[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            grid[i] = leftX + i * distance;
+        }
+        return TabulatedFunctions.createTabulatedFunction(leftX, rightX, evaluate(function, grid, parallel));
+    }
+
+    // Перенос функции на произвольную возрастающую сетку
+    public static TabulatedFunction resample(TabulatedFunction function, double[] xValues) {
+        return resample(function, xValues, false);
+    }
+
+    public static TabulatedFunction resample(TabulatedFunction function, double[] xValues, boolean parallel) {
+        if (xValues.length < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >=2");
+        }
+        for (int i = 1; i < xValues.length; i++) {
+            if (xValues[i] <= xValues[i - 1]) {
+                throw new IllegalArgumentException("Точки должны возрастать по абсциссе");
+            }
+        }
+        checkDomain(function, xValues[0], xValues[xValues.length - 1]);
+
+        return TabulatedFunctions.createTabulatedFunction(xValues, evaluate(function, xValues, parallel));
+    }
+
+    // Значения функции в неубывающей последовательности точек за один проход;
+    // точки вне области определения дают NaN, как и getFunctionValue
+    public static double[] evaluate(TabulatedFunction function, double[] xValues) {
+        return evaluate(function, xValues, false);
+    }
+
+    public static double[] evaluate(TabulatedFunction function, double[] xValues, boolean parallel) {
+        for (int i = 1; i < xValues.length; i++) {
+            if (xValues[i] < xValues[i - 1]) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию");
+            }
+        }
+        double[][] source = toArrays(function);
+        return interpolate(source[0], source[1], xValues, parallel);
+    }
+
+    // То же для функции, заданной узлами xValues, yValues (например, полученными из toArrays).
+    // Узлы не копируются и не проверяются, как в createTrustedTabulatedFunction, поэтому при
+    // многократных вычислениях одной функции стоимость вызова зависит только от числа точек
+    public static double[] evaluateTrusted(double[] xValues, double[] yValues, double[] points) {
+        if (xValues.length != yValues.length || xValues.length < 2) {
+            throw new IllegalArgumentException("Некорректные массивы узлов");
+        }
+        for (int i = 1; i < points.length; i++) {
+            if (points[i] < points[i - 1]) {
+                throw new IllegalArgumentException("Точки должны быть упорядочены по возрастанию");
+            }
+        }
+        return interpolate(xValues, yValues, points, false);
+    }
+
+    // Поточечные операции над табулированными функциями. Результат задан на объединении сеток
+    // аргументов, ограниченном пересечением их областей определения, и вычисляется один раз;
+    // в отличие от Functions.sum/mult значения потом берутся одним поиском отрезка
+
+    public static TabulatedFunction sum(TabulatedFunction... functions) {
+        double[] coefficients = new double[functions.length];
+        Arrays.fill(coefficients, 1.0);
+        return linearCombination(coefficients, functions);
+    }
+
+    public static TabulatedFunction difference(TabulatedFunction f_1, TabulatedFunction f_2) {
+        return linearCombination(new double[] {1.0, -1.0}, f_1, f_2);
+    }
+
+    public static TabulatedFunction linearCombination(double[] coefficients, TabulatedFunction... functions) {
+        if (coefficients.length != functions.length) {
+            throw new IllegalArgumentException("Количество коэффициентов не совпадает с количеством функций");
+        }
+        double[] grid = mergeGrids(functions);
+        double[][] values = valuesOnGrid(functions, grid);
+        double[] result = new double[grid.length];
+        forEachIndex(grid.length, i -> {
+            double value = 0.0;
+            for (int k = 0; k < values.length; k++) {
+                value += coefficients[k] * values[k][i];
+            }
+            result[i] = value;
+        });
+        return createFunction(grid, result);
+    }
+
+    public static TabulatedFunction product(TabulatedFunction... functions) {
+        double[] grid = mergeGrids(functions);
+        double[][] values = valuesOnGrid(functions, grid);
+        double[] result = new double[grid.length];
+        forEachIndex(grid.length, i -> {
+            double value = 1.0;
+            for (int k = 0; k < values.length; k++) {
+                value *= values[k][i];
+            }
+            result[i] = value;
+        });
+        return createFunction(grid, result);
+    }
+
+    // Минимум и максимум точны для кусочно-линейных функций: в точки пересечения графиков
+    // добавляются дополнительные узлы
+    public static TabulatedFunction min(TabulatedFunction... functions) {
+        return extremum(functions, false);
+    }
+
+    public static TabulatedFunction max(TabulatedFunction... functions) {
+        return extremum(functions, true);
+    }
+
+    private static TabulatedFunction extremum(TabulatedFunction[] functions, boolean max) {
+        checkFunctions(functions);
+        TabulatedFunction result = functions[0];
+        for (int k = 1; k < functions.length; k++) {
+            result = extremum(result, functions[k], max);
+        }
+        return result == functions[0] ? (TabulatedFunction) result.clone() : result;
+    }
+
+    private static TabulatedFunction extremum(TabulatedFunction f_1, TabulatedFunction f_2, boolean max) {
+        double[] grid = mergeGrids(f_1, f_2);
+        double[][] values = valuesOnGrid(new TabulatedFunction[] {f_1, f_2}, grid);
+        double[] first = values[0];
+        double[] second = values[1];
+
+        double[] xs = new double[grid.length * 2];
+        double[] ys = new double[grid.length * 2];
+        int count = 0;
+        for (int i = 0; i < grid.length; i++) {
+            if (i > 0) {
+                double d_1 = first[i - 1] - second[i - 1];
+                double d_2 = first[i] - second[i];
+                if (d_1 * d_2 < 0) {
+                    double t = d_1 / (d_1 - d_2);
+                    double x = grid[i - 1] + t * (grid[i] - grid[i - 1]);
+                    if (x - xs[count - 1] > EPSILON && grid[i] - x > EPSILON) {
+                        xs[count] = x;
+                        ys[count] = first[i - 1] + t * (first[i] - first[i - 1]);
+                        count++;
+                    }
+                }
+            }
+            xs[count] = grid[i];
+            ys[count] = max ? Math.max(first[i], second[i]) : Math.min(first[i], second[i]);
+            count++;
+        }
+        return createFunction(Arrays.copyOf(xs, count), Arrays.copyOf(ys, count));
+    }
+
+    // Объединение сеток всех функций на пересечении их областей определения;
+    // каждое слияние двух упорядоченных массивов линейно, совпадающие с точностью EPSILON узлы склеиваются
+    private static double[] mergeGrids(TabulatedFunction... functions) {
+        checkFunctions(functions);
+        double leftX = Double.NEGATIVE_INFINITY;
+        double rightX = Double.POSITIVE_INFINITY;
+        for (TabulatedFunction function : functions) {
+            leftX = Math.max(leftX, function.getLeftDomainBorder());
+            rightX = Math.min(rightX, function.getRightDomainBorder());
+        }
+        if (rightX - leftX <= EPSILON) {
+            throw new IllegalArgumentException("Области определения функций не пересекаются");
+        }
+
+        double[] grid = new double[] {leftX, rightX};
+        for (TabulatedFunction function : functions) {
+            double[] xs = new double[function.getPointsCount()];
+            int count = 0;
+            for (FunctionPoint point : function) {
+                if (point.getX() > leftX && point.getX() < rightX) {
+                    xs[count++] = point.getX();
+                }
+            }
+            grid = mergeSorted(grid, grid.length, xs, count);
+        }
+        return grid;
+    }
+
+    private static double[] mergeSorted(double[] a, int aCount, double[] b, int bCount) {
+        double[] result = new double[aCount + bCount];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < aCount || j < bCount) {
+            double x;
+            if (j >= bCount || (i < aCount && a[i] <= b[j])) {
+                x = a[i++];
+            } else {
+                x = b[j++];
+            }
+            if (count == 0 || x - result[count - 1] > EPSILON) {
+                result[count++] = x;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static double[][] valuesOnGrid(TabulatedFunction[] functions, double[] grid) {
+        boolean parallel = grid.length > PARALLEL_THRESHOLD;
+        double[][] values = new double[functions.length][];
+        for (int k = 0; k < functions.length; k++) {
+            double[][] source = toArrays(functions[k]);
+            values[k] = interpolate(source[0], source[1], grid, parallel);
+        }
+        return values;
+    }
+
+    private static void forEachIndex(int count, IntConsumer action) {
+        IntStream range = IntStream.range(0, count);
+        if (count > PARALLEL_THRESHOLD) {
+            range = range.parallel();
+        }
+        range.forEach(action);
+    }
+
+    // Сетки строятся здесь же и уже упорядочены, поэтому массивы передаются фабрике без проверки и копирования
+    private static TabulatedFunction createFunction(double[] xs, double[] ys) {
+        return TabulatedFunctions.createTrustedTabulatedFunction(xs, ys);
+    }
+
+    private static void checkFunctions(TabulatedFunction[] functions) {
+        if (functions.length == 0) {
+            throw new IllegalArgumentException("Не задано ни одной функции");
+        }
+        for (TabulatedFunction function : functions) {
+            if (function == null) {
+                throw new IllegalArgumentException("Функция не может быть null");
+            }
+        }
+    }
+
+    // Композиция кусочно-линейных функций outer(inner(x)) в виде новой табулированной функции.
+    // К узлам inner добавляются точки, где inner проходит через узлы outer, поэтому результат
+    // совпадает с композицией точно. Узлы outer перебираются указателем, движущимся вслед за
+    // значениями inner: для монотонной inner это O(n + m), в общем случае - O(n + m + k),
+    // где k - число добавленных точек. Значения inner должны лежать в области определения outer
+    public static TabulatedFunction composition(TabulatedFunction outer, TabulatedFunction inner) {
+        double[][] innerPoints = toArrays(inner);
+        double[][] outerPoints = toArrays(outer);
+        double[] xs = innerPoints[0];
+        double[] ys = innerPoints[1];
+        double[] us = outerPoints[0];
+        double[] vs = outerPoints[1];
+        int n = xs.length;
+        int last = us.length - 1;
+        for (double y : ys) {
+            if (!(y >= us[0] - EPSILON && y <= us[last] + EPSILON)) {
+                throw new IllegalArgumentException("Значения внутренней функции выходят за область определения внешней");
+            }
+        }
+
+        double[] resultX = new double[n + us.length];
+        double[] resultY = new double[n + us.length];
+        int count = 0;
+        // Отрезок outer [us[k], us[k + 1]], содержащий текущее значение inner
+        int k = findSegment(us, ys[0]);
+        for (int i = 0; i < n; i++) {
+            double a = ys[i];
+            if (count + us.length + 1 > resultX.length) {
+                resultX = Arrays.copyOf(resultX, resultX.length * 2 + us.length);
+                resultY = Arrays.copyOf(resultY, resultY.length * 2 + us.length);
+            }
+            resultX[count] = xs[i];
+            resultY[count] = valueInSegment(us, vs, Math.min(k, last - 1), clamp(a, us[0], us[last]));
+            count++;
+            if (i == n - 1) {
+                break;
+            }
+
+            double b = ys[i + 1];
+            if (b > a) {
+                while (k + 1 < last && us[k + 1] < b - EPSILON) {
+                    k++;
+                    if (us[k] > a + EPSILON) {
+                        count = addCrossing(resultX, resultY, count, xs[i], xs[i + 1], a, b, us[k], vs[k]);
+                    }
+                }
+            } else if (b < a) {
+                while (k > 0 && us[k] > b + EPSILON) {
+                    if (us[k] < a - EPSILON) {
+                        count = addCrossing(resultX, resultY, count, xs[i], xs[i + 1], a, b, us[k], vs[k]);
+                    }
+                    k--;
+                }
+            }
+        }
+        return createFunction(Arrays.copyOf(resultX, count), Arrays.copyOf(resultY, count));
+    }
+
+    // Точка внутри отрезка [x_1, x_2], где inner, линейно идущая от a к b, принимает значение u;
+    // слишком близкие к соседним узлам точки пропускаются
+    private static int addCrossing(double[] resultX, double[] resultY, int count,
+                                   double x_1, double x_2, double a, double b, double u, double v) {
+        double x = x_1 + (u - a) / (b - a) * (x_2 - x_1);
+        if (x - resultX[count - 1] > EPSILON && x_2 - x > EPSILON) {
+            resultX[count] = x;
+            resultY[count] = v;
+            count++;
+        }
+        return count;
+    }
+
+    private static double clamp(double x, double low, double high) {
+        return Math.max(low, Math.min(high, x));
+    }
+
+    // Все решения уравнения f(x) = c за один проход по точкам функции, в порядке возрастания:
+    // узлы, где значение равно c, и точки пересечения уровня c внутри отрезков
+    public static double[] findRoots(TabulatedFunction function, double c) {
+        double[] roots = new double[8];
+        int count = 0;
+        double xPrevious = 0.0;
+        double dPrevious = 0.0;
+        boolean first = true;
+        for (FunctionPoint point : function) {
+            double x = point.getX();
+            double d = point.getY() - c;
+            if (!first && Math.abs(dPrevious) >= EPSILON && Math.abs(d) >= EPSILON && dPrevious * d < 0) {
+                if (count == roots.length) {
+                    roots = Arrays.copyOf(roots, count * 2);
+                }
+                roots[count++] = xPrevious + dPrevious / (dPrevious - d) * (x - xPrevious);
+            }
+            if (Math.abs(d) < EPSILON) {
+                if (count == roots.length) {
+                    roots = Arrays.copyOf(roots, count * 2);
+                }
+                roots[count++] = x;
+            }
+            xPrevious = x;
+            dPrevious = d;
+            first = false;
+        }
+        return Arrays.copyOf(roots, count);
+    }
+
+    // Упрощение функции алгоритмом Дугласа-Пекера: остаются узлы, без которых отклонение
+    // по вертикали от исходной функции превысило бы tolerance. Обе функции кусочно-линейные,
+    // поэтому оценка в узлах верна и на всей области определения. Обычно O(n log n),
+    // для крупных функций половины отрезков обрабатываются параллельно
+    public static TabulatedFunction simplify(TabulatedFunction function, double tolerance) {
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("Допустимое отклонение должно быть неотрицательным");
+        }
+        double[][] points = toArrays(function);
+        double[] xs = points[0];
+        double[] ys = points[1];
+        int last = xs.length - 1;
+
+        boolean[] keep = new boolean[xs.length];
+        keep[0] = true;
+        keep[last] = true;
+        Simplification task = new Simplification(xs, ys, keep, tolerance, 0, last);
+        if (last > PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(task);
+        } else {
+            task.compute();
+        }
+
+        int count = 0;
+        for (boolean k : keep) {
+            if (k) {
+                count++;
+            }
+        }
+        double[] resultX = new double[count];
+        double[] resultY = new double[count];
+        int j = 0;
+        for (int i = 0; i <= last; i++) {
+            if (keep[i]) {
+                resultX[j] = xs[i];
+                resultY[j] = ys[i];
+                j++;
+            }
+        }
+        return createFunction(resultX, resultY);
+    }
+
+    // Отрезки длиннее PARALLEL_THRESHOLD делятся на две задачи, короткие обрабатываются стеком в одном потоке
+    private static final class Simplification extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] xs;
+        private final double[] ys;
+        private final boolean[] keep;
+        private final double tolerance;
+        private final int from;
+        private final int to;
+
+        Simplification(double[] xs, double[] ys, boolean[] keep, double tolerance, int from, int to) {
+            this.xs = xs;
+            this.ys = ys;
+            this.keep = keep;
+            this.tolerance = tolerance;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int split = farthest(xs, ys, from, to, tolerance);
+                if (split >= 0) {
+                    keep[split] = true;
+                    invokeAll(new Simplification(xs, ys, keep, tolerance, from, split),
+                            new Simplification(xs, ys, keep, tolerance, split, to));
+                }
+                return;
+            }
+
+            int[] stack = new int[64];
+            int size = 0;
+            stack[size++] = from;
+            stack[size++] = to;
+            while (size > 0) {
+                int right = stack[--size];
+                int left = stack[--size];
+                int split = farthest(xs, ys, left, right, tolerance);
+                if (split < 0) {
+                    continue;
+                }
+                keep[split] = true;
+                if (size + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[size++] = left;
+                stack[size++] = split;
+                stack[size++] = split;
+                stack[size++] = right;
+            }
+        }
+    }
+
+    // Узел строго между left и right, наиболее удалённый по вертикали от хорды,
+    // или -1, если все узлы отстоят от неё не больше чем на tolerance
+    private static int farthest(double[] xs, double[] ys, int left, int right, double tolerance) {
+        double slope = (ys[right] - ys[left]) / (xs[right] - xs[left]);
+        double maxError = tolerance;
+        int index = -1;
+        for (int i = left + 1; i < right; i++) {
+            double error = Math.abs(ys[i] - ys[left] - slope * (xs[i] - xs[left]));
+            if (error > maxError) {
+                maxError = error;
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    // Прореживание до pointsCount точек алгоритмом LTTB (Largest-Triangle-Three-Buckets) для отображения:
+    // крайние точки сохраняются, из каждой из остальных групп берётся точка, образующая треугольник
+    // наибольшей площади с предыдущей выбранной точкой и средней точкой следующей группы. O(n)
+    public static TabulatedFunction downsample(TabulatedFunction function, int pointsCount) {
+        if (pointsCount < 2) {
+            throw new IllegalArgumentException("Количество точек должно быть >=2");
+        }
+        double[][] points = toArrays(function);
+        double[] xs = points[0];
+        double[] ys = points[1];
+        int n = xs.length;
+        if (pointsCount >= n) {
+            return createFunction(xs, ys);
+        }
+
+        double[] resultX = new double[pointsCount];
+        double[] resultY = new double[pointsCount];
+        resultX[0] = xs[0];
+        resultY[0] = ys[0];
+        double bucketSize = (double) (n - 2) / (pointsCount - 2);
+        int selected = 0;
+        for (int b = 0; b < pointsCount - 2; b++) {
+            int from = (int) (b * bucketSize) + 1;
+            int to = (int) ((b + 1) * bucketSize) + 1;
+
+            // Средняя точка следующей группы; для последней группы - последняя точка функции
+            int nextFrom = to;
+            int nextTo = Math.min((int) ((b + 2) * bucketSize) + 1, n - 1);
+            double averageX = 0.0;
+            double averageY = 0.0;
+            if (nextFrom >= nextTo) {
+                averageX = xs[n - 1];
+                averageY = ys[n - 1];
+            } else {
+                for (int i = nextFrom; i < nextTo; i++) {
+                    averageX += xs[i];
+                    averageY += ys[i];
+                }
+                averageX /= nextTo - nextFrom;
+                averageY /= nextTo - nextFrom;
+            }
+
+            double maxArea = -1.0;
+            int best = from;
+            for (int i = from; i < to; i++) {
+                double area = Math.abs((xs[selected] - averageX) * (ys[i] - ys[selected])
+                        - (xs[selected] - xs[i]) * (averageY - ys[selected]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    best = i;
+                }
+            }
+            selected = best;
+            resultX[b + 1] = xs[best];
+            resultY[b + 1] = ys[best];
+        }
+        resultX[pointsCount - 1] = xs[n - 1];
+        resultY[pointsCount - 1] = ys[n - 1];
+        return createFunction(resultX, resultY);
+    }
+
+    // Координаты точек функции в виде двух массивов {xValues, yValues}. Массив и список отдают
+    // их прямо из внутреннего хранилища, остальные реализации обходятся итератором
+    public static double[][] toArrays(TabulatedFunction function) {
+        int count = function.getPointsCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        if (function instanceof ArrayTabulatedFunction) {
+            ((ArrayTabulatedFunction) function).copyTo(xs, ys, 0, count);
+            return new double[][] {xs, ys};
+        }
+        if (function instanceof LinkedListTabulatedFunction) {
+            ((LinkedListTabulatedFunction) function).copyTo(xs, ys, 0, count);
+            return new double[][] {xs, ys};
+        }
+        if (function instanceof ChunkedTabulatedFunction) {
+            return ((ChunkedTabulatedFunction) function).toArrays();
+        }
+        int i = 0;
+        for (FunctionPoint point : function) {
+            xs[i] = point.getX();
+            ys[i] = point.getY();
+            i++;
+        }
+        return new double[][] {xs, ys};
+    }
+
+    static double[] interpolate(double[] xs, double[] ys, double[] grid, boolean parallel) {
+        double[] result = new double[grid.length];
+        if (parallel && grid.length > CHUNK_SIZE) {
+            int chunks = (grid.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int from = chunk * CHUNK_SIZE;
+                interpolate(xs, ys, grid, result, from, Math.min(from + CHUNK_SIZE, grid.length));
+            });
+        } else {
+            interpolate(xs, ys, grid, result, 0, grid.length);
+        }
+        return result;
+    }
+
+    // Слияние упорядоченной сетки [from, to) с отрезками функции; начальный отрезок ищется двоичным поиском
+    private static void interpolate(double[] xs, double[] ys, double[] grid, double[] result, int from, int to) {
+        int last = xs.length - 1;
+        if (from >= to) {
+            return;
+        }
+        int i = findSegment(xs, grid[from]);
+        for (int k = from; k < to; k++) {
+            double x = grid[k];
+            if (x < xs[0] - EPSILON || x > xs[last] + EPSILON) {
+                result[k] = Double.NaN;
+                continue;
+            }
+            while (i < last - 1 && xs[i + 1] < x) {
+                i++;
+            }
+            result[k] = valueInSegment(xs, ys, i, x);
+        }
+    }
+
+    // Индекс i левого конца отрезка [xs[i], xs[i + 1]], содержащего x (с отсечением по краям)
+    static int findSegment(double[] xs, double x) {
+        int low = 0;
+        int high = xs.length - 1;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (xs[middle] < x) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    static double valueInSegment(double[] xs, double[] ys, int i, double x) {
+        double x_1 = xs[i];
+        double x_2 = xs[i + 1];
+        if (Math.abs(x - x_1) < EPSILON) {
+            return ys[i];
+        }
+        if (Math.abs(x - x_2) < EPSILON) {
+            return ys[i + 1];
+        }
+        return (x - x_1) * (ys[i + 1] - ys[i]) / (x_2 - x_1) + ys[i];
+    }
+
+    private static void checkDomain(TabulatedFunction function, double leftX, double rightX) {
+        if (leftX < function.getLeftDomainBorder() - EPSILON || rightX > function.getRightDomainBorder() + EPSILON) {
+            throw new IllegalArgumentException("Границы выходят за область определения");
+        }
+    }
+}
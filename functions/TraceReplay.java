@@ -0,0 +1,296 @@
+package functions;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Воспроизведение трассы RecordingTabulatedFunction на выбранной реализации.
+// Аргументы: <трасса> [реализация] [потоков] [повторов], реализация - array, list, concurrent,
+// spline, adaptive или sliding. Функция создаётся фабрикой реализации из исходных точек трассы,
+// записи делятся между потоками по кругу (порядок внутри потока сохраняется) и выполняются без
+// пауз. Для нескольких потоков нужна потокобезопасная реализация, иначе возможны ошибки.
+// Каждый повтор начинается с новой функции. В конце печатаются пропускная способность и перцентили
+// задержки, а для сравнения - длительность и задержки, записанные в трассе
+public class TraceReplay {
+    private final double[] xValues;
+    private final double[] yValues;
+    private final byte[] operations;
+    private final long[] starts;
+    private final int[] durations;
+    private final int[] indices;
+    private final double[] xs;
+    private final double[] ys;
+    private final int count;
+
+    public TraceReplay(String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path), 1 << 16))) {
+            if (in.readInt() != RecordingTabulatedFunction.MAGIC) {
+                throw new IOException("Файл не является трассой табулированной функции");
+            }
+            short version = in.readShort();
+            if (version != RecordingTabulatedFunction.VERSION) {
+                throw new IOException("Неподдерживаемая версия трассы: " + version);
+            }
+            int pointsCount = in.readInt();
+            if (pointsCount < 0) {
+                throw new IOException("Некорректное количество точек: " + pointsCount);
+            }
+            xValues = new double[pointsCount];
+            yValues = new double[pointsCount];
+            for (int i = 0; i < pointsCount; i++) {
+                xValues[i] = in.readDouble();
+                yValues[i] = in.readDouble();
+            }
+
+            int capacity = 1024;
+            byte[] operations = new byte[capacity];
+            long[] starts = new long[capacity];
+            int[] durations = new int[capacity];
+            int[] indices = new int[capacity];
+            double[] xs = new double[capacity];
+            double[] ys = new double[capacity];
+            int count = 0;
+            while (true) {
+                int operation = in.read();
+                if (operation < 0) {
+                    break;
+                }
+                if (count == capacity) {
+                    capacity *= 2;
+                    operations = Arrays.copyOf(operations, capacity);
+                    starts = Arrays.copyOf(starts, capacity);
+                    durations = Arrays.copyOf(durations, capacity);
+                    indices = Arrays.copyOf(indices, capacity);
+                    xs = Arrays.copyOf(xs, capacity);
+                    ys = Arrays.copyOf(ys, capacity);
+                }
+                try {
+                    operations[count] = (byte) operation;
+                    starts[count] = in.readLong();
+                    durations[count] = in.readInt();
+                    switch (operation) {
+                        case RecordingTabulatedFunction.FUNCTION_VALUE:
+                            xs[count] = in.readDouble();
+                            break;
+                        case RecordingTabulatedFunction.SET_POINT:
+                            indices[count] = in.readInt();
+                            xs[count] = in.readDouble();
+                            ys[count] = in.readDouble();
+                            break;
+                        case RecordingTabulatedFunction.SET_POINT_X:
+                            indices[count] = in.readInt();
+                            xs[count] = in.readDouble();
+                            break;
+                        case RecordingTabulatedFunction.SET_POINT_Y:
+                            indices[count] = in.readInt();
+                            ys[count] = in.readDouble();
+                            break;
+                        case RecordingTabulatedFunction.ADD_POINT:
+                            xs[count] = in.readDouble();
+                            ys[count] = in.readDouble();
+                            break;
+                        case RecordingTabulatedFunction.GET_POINT:
+                        case RecordingTabulatedFunction.GET_POINT_X:
+                        case RecordingTabulatedFunction.GET_POINT_Y:
+                        case RecordingTabulatedFunction.DELETE_POINT:
+                        case RecordingTabulatedFunction.ITERATE:
+                            indices[count] = in.readInt();
+                            break;
+                        case RecordingTabulatedFunction.OUTPUT:
+                        case RecordingTabulatedFunction.WRITE:
+                            break;
+                        default:
+                            throw new IOException("Неизвестный код операции: " + operation);
+                    }
+                } catch (EOFException e) {
+                    // Оборванная последняя запись (например, процесс завершился без close) отбрасывается
+                    break;
+                }
+                count++;
+            }
+            this.operations = operations;
+            this.starts = starts;
+            this.durations = durations;
+            this.indices = indices;
+            this.xs = xs;
+            this.ys = ys;
+            this.count = count;
+        }
+    }
+
+    public int getOperationsCount() {
+        return count;
+    }
+
+    public TabulatedFunction createFunction(TabulatedFunctionFactory factory) {
+        return factory.createTabulatedFunction(xValues, yValues);
+    }
+
+    // Выполнение записей from, from + step, from + 2·step, ... с замером задержки каждой;
+    // возвращает задержки, число ошибок записывается в errors[0]
+    public long[] replay(TabulatedFunction function, int from, int step, long[] errors) {
+        long[] latencies = new long[(count - from + step - 1) / step];
+        int k = 0;
+        for (int i = from; i < count; i += step) {
+            long begin = System.nanoTime();
+            try {
+                execute(function, i);
+            } catch (RuntimeException | InappropriateFunctionPointException e) {
+                errors[0]++;
+            }
+            latencies[k++] = System.nanoTime() - begin;
+        }
+        return latencies;
+    }
+
+    private void execute(TabulatedFunction function, int i) throws InappropriateFunctionPointException {
+        switch (operations[i]) {
+            case RecordingTabulatedFunction.FUNCTION_VALUE:
+                function.getFunctionValue(xs[i]);
+                break;
+            case RecordingTabulatedFunction.GET_POINT:
+                function.getPoint(indices[i]);
+                break;
+            case RecordingTabulatedFunction.GET_POINT_X:
+                function.getPointX(indices[i]);
+                break;
+            case RecordingTabulatedFunction.GET_POINT_Y:
+                function.getPointY(indices[i]);
+                break;
+            case RecordingTabulatedFunction.SET_POINT:
+                function.setPoint(indices[i], new FunctionPoint(xs[i], ys[i]));
+                break;
+            case RecordingTabulatedFunction.SET_POINT_X:
+                function.setPointX(indices[i], xs[i]);
+                break;
+            case RecordingTabulatedFunction.SET_POINT_Y:
+                function.setPointY(indices[i], ys[i]);
+                break;
+            case RecordingTabulatedFunction.DELETE_POINT:
+                function.deletePoint(indices[i]);
+                break;
+            case RecordingTabulatedFunction.ADD_POINT:
+                function.addPoint(new FunctionPoint(xs[i], ys[i]));
+                break;
+            case RecordingTabulatedFunction.OUTPUT:
+                TabulatedFunctions.outputTabulatedFunction(function, OutputStream.nullOutputStream());
+                break;
+            case RecordingTabulatedFunction.WRITE:
+                TabulatedFunctions.writeTabulatedFunction(function, Writer.nullWriter());
+                break;
+            case RecordingTabulatedFunction.ITERATE: {
+                // Проходится столько точек, сколько при записи, но не больше, чем есть сейчас
+                Iterator<FunctionPoint> iterator = function.iterator();
+                for (int k = 0; k < indices[i] && iterator.hasNext(); k++) {
+                    iterator.next();
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    static TabulatedFunctionFactory factory(String implementation) {
+        switch (implementation) {
+            case "array":
+                return new ArrayTabulatedFunction.ArrayTabulatedFunctionFactory();
+            case "list":
+                return new LinkedListTabulatedFunction.LinkedListTabulatedFunctionFactory();
+            case "concurrent":
+                return new ConcurrentTabulatedFunction.ConcurrentTabulatedFunctionFactory();
+            case "spline":
+                return new SplineTabulatedFunction.SplineTabulatedFunctionFactory();
+            case "adaptive":
+                return new AdaptiveTabulatedFunction.AdaptiveTabulatedFunctionFactory();
+            case "sliding":
+                return new SlidingWindowTabulatedFunction.SlidingWindowTabulatedFunctionFactory();
+            default:
+                throw new IllegalArgumentException("Неизвестная реализация: " + implementation);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Использование: TraceReplay <трасса> [array|list|concurrent|spline|adaptive|sliding] [потоков] [повторов]");
+            return;
+        }
+        String implementation = args.length > 1 ? args[1] : "array";
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        int repeats = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        if (threads < 1 || repeats < 1) {
+            throw new IllegalArgumentException("Количество потоков и повторов должно быть >=1");
+        }
+
+        TraceReplay trace = new TraceReplay(args[0]);
+        TabulatedFunctionFactory factory = factory(implementation);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        long[] all = new long[0];
+        long errors = 0;
+        long elapsedNanos = 0;
+        // Потоки пула не фоновые: без shutdownNow при ошибке воспроизведения JVM не завершится
+        try {
+            for (int r = 0; r < repeats; r++) {
+                TabulatedFunction function = trace.createFunction(factory);
+                List<Future<long[]>> results = new ArrayList<>(threads);
+                long[][] threadErrors = new long[threads][1];
+                long start = System.nanoTime();
+                for (int t = 0; t < threads; t++) {
+                    int from = t;
+                    results.add(executor.submit(() -> trace.replay(function, from, threads, threadErrors[from])));
+                }
+                for (Future<long[]> result : results) {
+                    long[] latencies = result.get();
+                    int offset = all.length;
+                    all = Arrays.copyOf(all, offset + latencies.length);
+                    System.arraycopy(latencies, 0, all, offset, latencies.length);
+                }
+                elapsedNanos += System.nanoTime() - start;
+                for (long[] e : threadErrors) {
+                    errors += e[0];
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Arrays.sort(all);
+        double elapsed = elapsedNanos / 1e9;
+
+        System.out.printf("Трасса: %s, операций: %d, исходных точек: %d%n", args[0], trace.count, trace.xValues.length);
+        System.out.printf("Реализация: %s, потоков: %d, повторов: %d, время: %.3f с%n", implementation, threads, repeats, elapsed);
+        System.out.printf("Операций: %d (ошибок: %d), %.0f операций/с%n", all.length, errors, all.length / elapsed);
+        if (all.length > 0) {
+            System.out.printf("Задержка, мкс: p50 %.3f, p90 %.3f, p99 %.3f, p99.9 %.3f, max %.3f%n",
+                    percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+                    percentile(all, 0.999), all[all.length - 1] / 1e3);
+        }
+        if (trace.count > 0) {
+            long[] recorded = new long[trace.count];
+            long recordedEnd = 0;
+            for (int i = 0; i < trace.count; i++) {
+                recorded[i] = trace.durations[i];
+                recordedEnd = Math.max(recordedEnd, trace.starts[i] + trace.durations[i]);
+            }
+            Arrays.sort(recorded);
+            System.out.printf("При записи: %.3f с, задержка, мкс: p50 %.3f, p99 %.3f%n",
+                    recordedEnd / 1e9, percentile(recorded, 0.50), percentile(recorded, 0.99));
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e3;
+    }
+}
@@ -0,0 +1,158 @@
+package functions.server;
+
+import functions.TabulatedFunction;
+import functions.TabulatedFunctions;
+import functions.TabulatedOperations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+// Объединяет одновременные запросы вычисления одной табулированной функции.
+// Запросы ставятся в очередь, которую разбирает отдельный поток-обработчик: он забирает всё,
+// что накопилось, сортирует точки всех запросов и вычисляет их одним проходом по узлам.
+// Пока идёт вычисление, новые запросы копятся для следующего пакета; вызывающие потоки только
+// ждут свой результат. Координаты функции копируются в массивы один раз при создании, а не
+// в каждом пакете; последующие изменения переданной функции не видны - чтобы их учесть,
+// функцию регистрируют заново
+public class EvaluationBatcher implements AutoCloseable {
+    private final double[] functionX;
+    private final double[] functionY;
+    private final LinkedBlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread drainer;
+    private volatile boolean closed;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder points = new LongAdder();
+
+    private static class Request {
+        final double[] xValues;
+        final CompletableFuture<double[]> result = new CompletableFuture<>();
+
+        Request(double[] xValues) {
+            this.xValues = xValues;
+        }
+    }
+
+    public EvaluationBatcher(TabulatedFunction function) {
+        if (function == null) {
+            throw new IllegalArgumentException("Функция не может быть null");
+        }
+        double[][] coordinates = TabulatedOperations.toArrays(function);
+        this.functionX = coordinates[0];
+        this.functionY = coordinates[1];
+        this.drainer = new Thread(this::drain, "evaluation-batcher");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    // Функция по сохранённым координатам (копия)
+    public TabulatedFunction getFunction() {
+        return TabulatedFunctions.createTabulatedFunction(functionX.clone(), functionY.clone());
+    }
+
+    // Значения функции в точках xValues (в любом порядке); вне области определения - NaN
+    public double[] evaluate(double[] xValues) {
+        for (double x : xValues) {
+            if (Double.isNaN(x)) {
+                throw new IllegalArgumentException("Точка не может быть NaN");
+            }
+        }
+        if (closed) {
+            throw new IllegalStateException("Обработчик запросов остановлен");
+        }
+        Request request = new Request(xValues);
+        queue.add(request);
+        // Запрос, добавленный одновременно с close, обработчик уже не увидит
+        if (closed && queue.remove(request)) {
+            throw new IllegalStateException("Обработчик запросов остановлен");
+        }
+        try {
+            return request.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание результата прервано", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Ошибка вычисления функции", cause);
+        }
+    }
+
+    public long getBatchesCount() {
+        return batches.sum();
+    }
+
+    public long getRequestsCount() {
+        return requests.sum();
+    }
+
+    public long getPointsCount() {
+        return points.sum();
+    }
+
+    // Поток-обработчик завершается; ожидающие запросы завершаются ошибкой
+    @Override
+    public void close() {
+        closed = true;
+        drainer.interrupt();
+    }
+
+    private void drain() {
+        List<Request> batch = new ArrayList<>();
+        try {
+            while (!closed) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                process(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // Остановка через close
+        } finally {
+            queue.drainTo(batch);
+            IllegalStateException stopped = new IllegalStateException("Обработчик запросов остановлен");
+            for (Request request : batch) {
+                request.result.completeExceptionally(stopped);
+            }
+        }
+    }
+
+    private void process(List<Request> batch) {
+        int total = 0;
+        for (Request request : batch) {
+            total += request.xValues.length;
+        }
+        try {
+            double[] sorted = new double[total];
+            int offset = 0;
+            for (Request request : batch) {
+                System.arraycopy(request.xValues, 0, sorted, offset, request.xValues.length);
+                offset += request.xValues.length;
+            }
+            Arrays.sort(sorted);
+            double[] values = TabulatedOperations.evaluateTrusted(functionX, functionY, sorted);
+
+            for (Request request : batch) {
+                double[] result = new double[request.xValues.length];
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = values[Arrays.binarySearch(sorted, request.xValues[i])];
+                }
+                request.result.complete(result);
+            }
+            batches.increment();
+            requests.add(batch.size());
+            points.add(total);
+        } catch (RuntimeException | Error e) {
+            for (Request request : batch) {
+                request.result.completeExceptionally(e);
+            }
+        }
+    }
+}
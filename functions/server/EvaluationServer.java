@@ -0,0 +1,173 @@
+package functions.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import functions.TabulatedFunction;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Встраиваемый HTTP-сервер вычисления зарегистрированных табулированных функций.
+// GET /evaluate?function=имя&x=1.5,2,3 или POST /evaluate?function=имя с точками в теле
+// (через пробелы, запятые или переводы строк); ответ - значения по одному в строке.
+// Каждый запрос обслуживается отдельным виртуальным потоком (Java 21+) или потоком из
+// кэширующего пула, одновременные запросы к одной функции объединяет EvaluationBatcher.
+// Без TCP_NODELAY алгоритм Нейгла и отложенное подтверждение добавляют ~40 мс к каждому ответу;
+// свойство общее для всей JVM, поэтому сервер его не меняет: его задают при запуске,
+// -Dsun.net.httpserver.nodelay=true
+public class EvaluationServer {
+    private final ConcurrentHashMap<String, EvaluationBatcher> functions = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public EvaluationServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = newPerRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/evaluate", this::handleEvaluate);
+        server.createContext("/functions", this::handleFunctions);
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor появился в Java 21, поэтому ищется через рефлексию
+    static ExecutorService newPerRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    // Координаты функции копируются при регистрации; после изменения функцию регистрируют заново
+    public void register(String name, TabulatedFunction function) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Имя функции не может быть пустым");
+        }
+        EvaluationBatcher previous = functions.put(name, new EvaluationBatcher(function));
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    public void unregister(String name) {
+        EvaluationBatcher batcher = functions.remove(name);
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    public EvaluationBatcher getBatcher(String name) {
+        return functions.get(name);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        for (EvaluationBatcher batcher : functions.values()) {
+            batcher.close();
+        }
+    }
+
+    private void handleFunctions(HttpExchange exchange) throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (String name : functions.keySet()) {
+            body.append(name).append('\n');
+        }
+        send(exchange, 200, body.toString());
+    }
+
+    private void handleEvaluate(HttpExchange exchange) throws IOException {
+        try {
+            String query = exchange.getRequestURI().getRawQuery();
+            String name = parameter(query, "function");
+            if (name == null) {
+                send(exchange, 400, "Не указана функция\n");
+                return;
+            }
+            EvaluationBatcher batcher = functions.get(name);
+            if (batcher == null) {
+                send(exchange, 404, "Функция " + name + " не найдена\n");
+                return;
+            }
+
+            String points = parameter(query, "x");
+            if ("POST".equals(exchange.getRequestMethod())) {
+                try (InputStream in = exchange.getRequestBody()) {
+                    points = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+            double[] xValues = parsePoints(points);
+
+            double[] values = batcher.evaluate(xValues);
+            StringBuilder body = new StringBuilder(values.length * 20);
+            for (double value : values) {
+                body.append(value).append('\n');
+            }
+            send(exchange, 200, body.toString());
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, e.getMessage() + "\n");
+        } catch (RuntimeException e) {
+            send(exchange, 500, e + "\n");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static double[] parsePoints(String points) {
+        if (points == null || points.isBlank()) {
+            throw new IllegalArgumentException("Не указаны точки");
+        }
+        String[] tokens = points.trim().split("[\\s,]+");
+        double[] xValues = new double[tokens.length];
+        int count = 0;
+        for (String token : tokens) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            try {
+                xValues[count++] = Double.parseDouble(token);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Некорректная точка: " + token);
+            }
+        }
+        return count == xValues.length ? xValues : Arrays.copyOf(xValues, count);
+    }
+
+    private static String parameter(String query, String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0 && pair.substring(0, separator).equals(name)) {
+                return URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package functions.server;
+
+import functions.TabulatedFunctions;
+import functions.basic.Sin;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Нагрузочный клиент для EvaluationServer: clients параллельных клиентов в течение seconds секунд
+// отправляют запросы по points случайных точек и замеряют задержку каждого ответа.
+// Аргументы: [clients] [seconds] [points] [url]; без url запускается встроенный сервер с
+// табулированным синусом. В конце печатаются пропускная способность и перцентили задержки
+public class LoadGenerator {
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int points = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        String url = args.length > 3 ? args[3] : null;
+
+        EvaluationServer server = null;
+        if (url == null) {
+            // Встроенный сервер работает в этом процессе, поэтому TCP_NODELAY включается здесь
+            if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                System.setProperty("sun.net.httpserver.nodelay", "true");
+            }
+            server = new EvaluationServer(0);
+            server.register("sin", TabulatedFunctions.tabulate(new Sin(), 0, 2 * Math.PI, 100001));
+            server.start();
+            url = "http://127.0.0.1:" + server.getPort();
+        }
+        URI base = URI.create(url + "/evaluate?function=sin&x=");
+
+        ExecutorService executor = EvaluationServer.newPerRequestExecutor();
+        HttpClient client = HttpClient.newBuilder().executor(executor).build();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        List<Future<long[]>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            long seed = c;
+            results.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                long[] latencies = new long[1024];
+                int count = 0;
+                StringBuilder query = new StringBuilder();
+                while (System.nanoTime() < deadline) {
+                    query.setLength(0);
+                    for (int i = 0; i < points; i++) {
+                        if (i > 0) {
+                            query.append(',');
+                        }
+                        query.append(random.nextDouble() * 2 * Math.PI);
+                    }
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(base + query.toString())).GET().build();
+                    long begin = System.nanoTime();
+                    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                    long latency = System.nanoTime() - begin;
+                    if (response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = latency;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> result : results) {
+            long[] latencies = result.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(all);
+
+        System.out.printf("Клиентов: %d, точек в запросе: %d, время: %.1f с%n", clients, points, elapsed);
+        System.out.printf("Запросов: %d (ошибок: %d), %.0f запросов/с, %.0f точек/с%n",
+                all.length, errors.get(), all.length / elapsed, all.length * (double) points / elapsed);
+        if (all.length > 0) {
+            System.out.printf("Задержка, мс: p50 %.3f, p90 %.3f, p99 %.3f, p99.9 %.3f, max %.3f%n",
+                    percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+                    percentile(all, 0.999), all[all.length - 1] / 1e6);
+        }
+        if (server != null) {
+            EvaluationBatcher batcher = server.getBatcher("sin");
+            long batches = batcher.getBatchesCount();
+            System.out.printf("Пакетов: %d, запросов в пакете в среднем: %.2f%n",
+                    batches, batches == 0 ? 0.0 : batcher.getRequestsCount() / (double) batches);
+            server.stop();
+        }
+        executor.shutdownNow();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}